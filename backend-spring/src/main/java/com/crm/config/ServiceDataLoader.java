@@ -2,6 +2,7 @@ package com.crm.config;
 
 import com.crm.domain.Service;
 import com.crm.repository.ServiceRepository;
+import com.crm.service.ServiceCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
@@ -19,12 +20,13 @@ public class ServiceDataLoader {
     );
 
     @Bean
-    public ApplicationRunner initServices(ServiceRepository serviceRepository) {
+    public ApplicationRunner initServices(ServiceRepository serviceRepository, ServiceCatalog serviceCatalog) {
         return args -> {
             if (serviceRepository.count() == 0) {
                 for (String name : SERVICE_NAMES) {
                     serviceRepository.save(Service.builder().name(name).build());
                 }
+                serviceCatalog.refresh();
             }
         };
     }
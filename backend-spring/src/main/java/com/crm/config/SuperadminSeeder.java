@@ -40,7 +40,7 @@ public class SuperadminSeeder {
                 log.warn("Superadmin seed skipped: set SUPERADMIN_EMAIL and SUPERADMIN_PASSWORD (min 8 chars) to create the first superadmin.");
                 return;
             }
-            if (userRepository.existsByEmail(email.trim())) {
+            if (userRepository.existsByEmailIgnoreCase(email.trim())) {
                 log.info("Superadmin seed skipped: a user with email {} already exists.", email.trim());
                 return;
             }
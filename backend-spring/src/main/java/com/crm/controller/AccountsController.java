@@ -2,7 +2,9 @@ package com.crm.controller;
 
 import com.crm.domain.User;
 import com.crm.dto.*;
+import com.crm.service.UserProvisioningService;
 import com.crm.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/accounts/users")
@@ -19,10 +22,11 @@ import java.util.Map;
 public class AccountsController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     @PostMapping("/login")
-    public AuthResponse login(@Valid @RequestBody LoginRequest request) {
-        return userService.login(request);
+    public CompletableFuture<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest http) {
+        return userService.login(request, http.getRemoteAddr());
     }
 
     @PostMapping("/register")
@@ -52,6 +56,12 @@ public class AccountsController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /** Creates up to 1000 users; the body is a JSON array of user objects. Reports a result per element. */
+    @PostMapping("/bulk")
+    public Map<String, Object> bulkCreate(@RequestBody List<UserCreateDto> users, @AuthenticationPrincipal User current) {
+        return userProvisioningService.createUsers(users, current);
+    }
+
     @PatchMapping("/{id}")
     public UserDto update(@PathVariable Long id, @RequestBody UserUpdateDto dto, @AuthenticationPrincipal User current) {
         return userService.updateUser(id, dto, current);
@@ -2,14 +2,23 @@ package com.crm.controller;
 
 import com.crm.domain.User;
 import com.crm.dto.*;
+import com.crm.service.ClientImportService;
+import com.crm.service.DataFormat;
 import com.crm.service.SalesService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -19,19 +28,62 @@ import java.util.Map;
 public class SalesController {
 
     private final SalesService salesService;
+    private final ClientImportService clientImportService;
 
     @GetMapping("/clients")
-    public List<ClientDto> listClients(
+    public CursorPage<ClientDto> listClients(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String search,
+            @RequestParam(name = "assigned_to", required = false) Long assignedTo,
+            @RequestParam(name = "entry_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryFrom,
+            @RequestParam(name = "entry_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal User current
     ) {
-        return salesService.listClients(current, status, search);
+        return salesService.listClients(current, status, search, assignedTo, entryFrom, entryTo, cursor, limit);
     }
 
     @GetMapping("/clients/analytics")
-    public Map<String, Object> analytics(@AuthenticationPrincipal User current) {
-        return salesService.analytics(current);
+    public Map<String, Object> analytics(@RequestParam(name = "assigned_to", required = false) Long assignedTo,
+                                         @AuthenticationPrincipal User current) {
+        return salesService.analytics(current, assignedTo);
+    }
+
+    @GetMapping("/clients/analytics/timeseries")
+    public Map<String, Object> timeseries(
+            @RequestParam(defaultValue = "closed") String basis,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(name = "group_by", defaultValue = "none") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal User current
+    ) {
+        return salesService.timeseries(current, basis, granularity, groupBy, from, to);
+    }
+
+    @GetMapping("/clients/export")
+    public ResponseEntity<StreamingResponseBody> exportClients(
+            @RequestParam(required = false) String status,
+            @RequestParam(name = "assigned_to", required = false) Long assignedTo,
+            @RequestParam(name = "entry_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryFrom,
+            @RequestParam(name = "entry_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryTo,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal User current
+    ) {
+        DataFormat f = DataFormat.resolve(format, accept);
+        return download("clients", f, out -> salesService.exportClients(current, status, assignedTo, entryFrom, entryTo, f, out));
+    }
+
+    /** Bulk import from a CSV (header row required) or NDJSON request body; format defaults from Content-Type. */
+    @PostMapping("/clients/import")
+    public Map<String, Object> importClients(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User current
+    ) throws IOException {
+        return clientImportService.importClients(request.getInputStream(), DataFormat.resolve(format, request.getContentType()), current);
     }
 
     @GetMapping("/clients/{id}")
@@ -63,18 +115,37 @@ public class SalesController {
         return salesService.updateClientStatus(id, status, dealValue, current);
     }
 
+    /** Served from the in-memory catalog; clients revalidate with If-None-Match and get 304 while it is unchanged. */
     @GetMapping("/services")
-    public List<ServiceDto> listServices(@AuthenticationPrincipal User current) {
-        return salesService.listServices();
+    public ResponseEntity<List<ServiceDto>> listServices(@AuthenticationPrincipal User current) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(salesService.servicesEtag()).body(salesService.listServices());
     }
 
     @GetMapping("/follow-ups")
-    public List<FollowUpDto> listFollowUps(
+    public CursorPage<FollowUpDto> listFollowUps(
+            @RequestParam(required = false) Long client,
+            @RequestParam(required = false) Boolean done,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal User current
+    ) {
+        return salesService.listFollowUps(current, client, done, from, to, cursor, limit);
+    }
+
+    @GetMapping("/follow-ups/export")
+    public ResponseEntity<StreamingResponseBody> exportFollowUps(
             @RequestParam(required = false) Long client,
             @RequestParam(required = false) Boolean done,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             @AuthenticationPrincipal User current
     ) {
-        return salesService.listFollowUps(current, client, done);
+        DataFormat f = DataFormat.resolve(format, accept);
+        return download("follow-ups", f, out -> salesService.exportFollowUps(current, client, done, from, to, f, out));
     }
 
     @PostMapping("/follow-ups")
@@ -89,12 +160,32 @@ public class SalesController {
     }
 
     @GetMapping("/activities")
-    public List<SalesActivityDto> listActivities(
+    public CursorPage<SalesActivityDto> listActivities(
+            @RequestParam(required = false) Long user,
             @RequestParam(required = false) Long client,
             @RequestParam(required = false) String activity_type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal User current
     ) {
-        return salesService.listSalesActivities(current, client, activity_type);
+        return salesService.listSalesActivities(current, user, client, activity_type, from, to, cursor, limit);
+    }
+
+    @GetMapping("/activities/export")
+    public ResponseEntity<StreamingResponseBody> exportActivities(
+            @RequestParam(required = false) Long user,
+            @RequestParam(required = false) Long client,
+            @RequestParam(required = false) String activity_type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @AuthenticationPrincipal User current
+    ) {
+        DataFormat f = DataFormat.resolve(format, accept);
+        return download("activities", f, out -> salesService.exportSalesActivities(current, user, client, activity_type, from, to, f, out));
     }
 
     @PostMapping("/activities")
@@ -102,4 +193,11 @@ public class SalesController {
         SalesActivityDto created = salesService.createSalesActivity(dto, current);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, DataFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.extension() + "\"")
+                .body(body);
+    }
 }
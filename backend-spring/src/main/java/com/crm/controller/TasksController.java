@@ -2,13 +2,16 @@ package com.crm.controller;
 
 import com.crm.domain.User;
 import com.crm.dto.*;
+import com.crm.service.TaskBulkService;
 import com.crm.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -18,10 +21,34 @@ import java.util.Map;
 public class TasksController {
 
     private final TaskService taskService;
+    private final TaskBulkService taskBulkService;
 
+    /**
+     * Filtered, keyset-paged task list. {@code sort} is one of created_at, -created_at (default), deadline, -deadline.
+     * Notes are omitted (only note_count is set) unless include=notes is passed.
+     */
     @GetMapping("/tasks")
-    public List<TaskDto> listTasks(@AuthenticationPrincipal User current) {
-        return taskService.listTasks(current);
+    public CursorPage<TaskDto> listTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(name = "assigned_to", required = false) Long assignedTo,
+            @RequestParam(name = "created_by", required = false) Long createdBy,
+            @RequestParam(name = "deadline_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(name = "deadline_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String include,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal User current) {
+        return taskService.listTasks(current, status, priority, assignedTo, createdBy, deadlineFrom, deadlineTo, overdue,
+                sort, "notes".equals(include), cursor, limit);
+    }
+
+    @GetMapping("/tasks/summary")
+    public Map<String, Object> summary(@RequestParam(name = "assigned_to", required = false) Long assignedTo,
+                                       @AuthenticationPrincipal User current) {
+        return taskService.summary(current, assignedTo);
     }
 
     @GetMapping("/tasks/{id}")
@@ -35,6 +62,12 @@ public class TasksController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /** Applies up to 1000 create / reassign / set_status operations in one transaction; reports a result per operation. */
+    @PostMapping("/tasks/bulk")
+    public Map<String, Object> bulk(@RequestBody List<TaskBulkOperation> operations, @AuthenticationPrincipal User current) {
+        return taskBulkService.apply(operations, current);
+    }
+
     @PatchMapping("/tasks/{id}")
     public TaskDto updateTask(@PathVariable Long id, @RequestBody TaskUpdateDto dto, @AuthenticationPrincipal User current) {
         return taskService.updateTask(id, dto, current);
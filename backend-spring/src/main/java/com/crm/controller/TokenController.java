@@ -0,0 +1,32 @@
+package com.crm.controller;
+
+import com.crm.dto.AuthResponse;
+import com.crm.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/token")
+@RequiredArgsConstructor
+public class TokenController {
+
+    private final UserService userService;
+
+    /** Body: {"refresh": "..."}. The presented token is used up; store the returned pair. */
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@RequestBody Map<String, String> body) {
+        return userService.refresh(body.get("refresh"));
+    }
+
+    /** Revokes the bearer access token and, with body {"refresh": "..."}, the refresh token's family. */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                       @RequestBody(required = false) Map<String, String> body) {
+        String access = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        userService.logout(access, body != null ? body.get("refresh") : null);
+        return ResponseEntity.noContent().build();
+    }
+}
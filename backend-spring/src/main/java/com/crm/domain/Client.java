@@ -2,6 +2,7 @@ package com.crm.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,7 +11,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        @Index(name = "idx_clients_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_clients_assigned_created_at", columnList = "assigned_to_id, created_at, id"),
+        @Index(name = "idx_clients_status", columnList = "status")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -64,6 +69,7 @@ public class Client {
     private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<ClientService> services = new ArrayList<>();
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -7,7 +7,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "follow_ups")
+@Table(name = "follow_ups", indexes = {
+        @Index(name = "idx_follow_ups_client_date", columnList = "client_id, date"),
+        @Index(name = "idx_follow_ups_date_created_at", columnList = "date, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,42 @@
+package com.crm.domain;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What a role may do. Each distinct role string is resolved to a bit set once; after that
+ * {@link User#can(Permission)} is a map lookup and a mask.
+ */
+public enum Permission {
+    /** Read and edit records owned by other users: clients, follow-ups, activities, tasks, leave, meetings. */
+    VIEW_ALL,
+    /** Create, update and delete other users' accounts. */
+    MANAGE_USERS,
+    /** Create, reassign and delete tasks. */
+    ASSIGN_TASKS,
+    /** Approve or reject leave requests. */
+    APPROVE_LEAVE;
+
+    private static final int ALL = (1 << values().length) - 1;
+    private static final Map<String, Integer> ROLES = Map.of("superadmin", ALL, "admin", ALL, "hr", ALL);
+    private static final int MAX_RESOLVED = 64;
+    private static final Map<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    private final int bit = 1 << ordinal();
+
+    /** Permission bits of a role; unknown roles have none. */
+    public static int bitsOf(String role) {
+        if (role == null) return 0;
+        Integer bits = resolved.get(role);
+        if (bits == null) {
+            bits = ROLES.getOrDefault(role.toLowerCase(Locale.ROOT), 0);
+            if (resolved.size() < MAX_RESOLVED) resolved.put(role, bits);
+        }
+        return bits;
+    }
+
+    public boolean grantedTo(String role) {
+        return (bitsOf(role) & bit) != 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crm.domain;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared, immutable authority list per role, so {@link User#getAuthorities()} allocates nothing.
+ * The known roles are built up front; any other role string is built once and remembered (bounded).
+ */
+public final class RoleAuthorities {
+
+    private static final List<String> ROLES = List.of("user", "hr", "admin", "finance", "tech_support", "superadmin");
+    private static final int MAX_RESOLVED = 64;
+    private static final Map<String, List<GrantedAuthority>> byRole = new ConcurrentHashMap<>();
+
+    static {
+        for (String role : ROLES) byRole.put(role, build(role));
+    }
+
+    private RoleAuthorities() {
+    }
+
+    public static List<GrantedAuthority> of(String role) {
+        if (role == null || role.isEmpty()) return List.of();
+        List<GrantedAuthority> authorities = byRole.get(role);
+        if (authorities == null) {
+            authorities = build(role);
+            if (byRole.size() < MAX_RESOLVED) byRole.put(role, authorities);
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> build(String role) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT)));
+    }
+}
@@ -8,7 +8,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales_activities")
+@Table(name = "sales_activities", indexes = {
+        @Index(name = "idx_sales_activities_date_created_at", columnList = "date, created_at, id"),
+        @Index(name = "idx_sales_activities_user_date", columnList = "user_id, date, created_at"),
+        @Index(name = "idx_sales_activities_client_date", columnList = "client_id, date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
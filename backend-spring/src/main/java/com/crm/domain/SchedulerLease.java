@@ -0,0 +1,27 @@
+package com.crm.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Named lease on a scheduled job, so only one instance runs it at a time. Held by {@code owner} until {@code leaseUntil}. */
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(length = 64, nullable = false)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
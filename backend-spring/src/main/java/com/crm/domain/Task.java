@@ -2,6 +2,7 @@ package com.crm.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,7 +10,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_assigned_status_deadline", columnList = "assigned_to_id, status, deadline"),
+        @Index(name = "idx_tasks_overdue_deadline", columnList = "overdue, deadline"),
+        @Index(name = "idx_tasks_deadline", columnList = "deadline")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,7 +35,7 @@ public class Task {
 
     @Column(length = 20)
     @Builder.Default
-    private String status = "pending"; // pending, in_progress, completed, overdue
+    private String status = "pending"; // pending, in_progress, completed
 
     @Column(length = 20)
     @Builder.Default
@@ -47,6 +53,11 @@ public class Task {
     @Builder.Default
     private Integer progress = 0;
 
+    /** Maintained by refreshOverdue and TaskOverdueSweep; independent of the workflow status. */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean overdue = false;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     @Column(name = "updated_at")
@@ -56,6 +67,7 @@ public class Task {
 
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt DESC")
+    @BatchSize(size = 100)
     @Builder.Default
     private List<TaskNote> notes = new ArrayList<>();
 
@@ -71,7 +83,14 @@ public class Task {
     }
 
     public boolean getIsOverdue() {
-        if (deadline == null || "completed".equals(status)) return false;
-        return LocalDate.now().isAfter(deadline);
+        return Boolean.TRUE.equals(overdue);
+    }
+
+    /**
+     * Flags the task overdue while its deadline is before {@code today} and it is not completed. The status is
+     * left alone. TaskOverdueSweep applies the same rule in bulk to deadlines that lapse with the date.
+     */
+    public void refreshOverdue(LocalDate today) {
+        overdue = deadline != null && deadline.isBefore(today) && !"completed".equals(status);
     }
 }
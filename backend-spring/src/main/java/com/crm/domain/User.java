@@ -5,15 +5,11 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Entity
 @Table(name = "users")
@@ -64,6 +60,11 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean active = true;
 
+    /** Bumped when the role or active flag changes; access tokens carry it as the "ver" claim. */
+    @Column(name = "token_version")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @Column(name = "date_joined")
     private LocalDateTime dateJoined;
 
@@ -87,10 +88,7 @@ public class User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Stream.of(role)
-                .filter(r -> r != null && !r.isEmpty())
-                .map(r -> new SimpleGrantedAuthority("ROLE_" + r.toUpperCase()))
-                .collect(Collectors.toList());
+        return RoleAuthorities.of(role);
     }
 
     @Override
@@ -123,7 +121,7 @@ public class User implements UserDetails {
         return Boolean.TRUE.equals(active);
     }
 
-    public boolean isAdminOrHr() {
-        return "admin".equalsIgnoreCase(role) || "superadmin".equalsIgnoreCase(role) || "hr".equalsIgnoreCase(role);
+    public boolean can(Permission permission) {
+        return permission.grantedTo(role);
     }
 }
@@ -0,0 +1,21 @@
+package com.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.Data;
+
+import java.util.List;
+
+/** One element of POST /tasks/tasks/bulk: create, reassign or set_status. */
+@Data
+public class TaskBulkOperation {
+    private String op;
+    /** Target tasks of reassign and set_status. */
+    private List<Long> ids;
+    /** New assignee for reassign. */
+    @JsonAlias("assigned_to")
+    private Long assignedTo;
+    /** New status for set_status. */
+    private String status;
+    /** The task to create. */
+    private TaskCreateDto task;
+}
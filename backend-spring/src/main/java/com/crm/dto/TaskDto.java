@@ -28,7 +28,10 @@ public class TaskDto {
     private UserMinimalDto createdByDetail;
     private LocalDate deadline;
     private Integer progress;
+    /** Only populated when the list is requested with include=notes, and for single-task reads. */
     private List<TaskNoteDto> notes;
+    @JsonProperty("note_count")
+    private Integer noteCount;
     @JsonProperty("created_at")
     private LocalDateTime createdAt;
     @JsonProperty("updated_at")
@@ -0,0 +1,12 @@
+package com.crm.repository;
+
+import java.math.BigDecimal;
+
+public interface ClientFunnelRow {
+    Long getAssignedToId();
+    String getStatus();
+    Long getClients();
+    BigDecimal getDealValue();
+    Long getCloseDays();
+    Long getCloseCount();
+}
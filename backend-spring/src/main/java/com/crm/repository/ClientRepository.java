@@ -2,11 +2,43 @@ package com.crm.repository;
 
 import com.crm.domain.Client;
 import com.crm.domain.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client>, ClientTimeseriesQueries {
+    Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
 
-public interface ClientRepository extends JpaRepository<Client, Long> {
     List<Client> findByAssignedToOrderByCreatedAtDesc(User assignedTo);
     List<Client> findAllByOrderByCreatedAtDesc();
+
+    /** Loads and row-locks the client until the end of the transaction (SELECT ... FOR UPDATE). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Client c WHERE c.id = :id")
+    Optional<Client> lockById(@Param("id") Long id);
+
+    @Query("SELECT c.id AS id, a.id AS assignedToId, c.clientName AS clientName, c.companyName AS companyName, c.email AS email "
+            + "FROM Client c LEFT JOIN c.assignedTo a")
+    List<ClientSearchRow> findAllSearchRows();
+
+    @Query("SELECT a.id AS assignedToId, c.status AS status, COUNT(c) AS clients, SUM(c.dealValue) AS dealValue, "
+            + "SUM(CASE WHEN c.closedDate IS NOT NULL AND c.entryDate IS NOT NULL THEN (c.closedDate - c.entryDate) BY DAY ELSE 0 END) AS closeDays, "
+            + "SUM(CASE WHEN c.closedDate IS NOT NULL AND c.entryDate IS NOT NULL THEN 1 ELSE 0 END) AS closeCount "
+            + "FROM Client c LEFT JOIN c.assignedTo a GROUP BY a.id, c.status")
+    List<ClientFunnelRow> aggregateFunnel();
+
+    @Query("SELECT LOWER(c.email) FROM Client c")
+    List<String> findAllEmailsLowercase();
+
+    default List<Client> findPage(Specification<Client> spec, int limit) {
+        return findBy(spec, q -> q.sortBy(NEWEST_FIRST).limit(limit).all());
+    }
 }
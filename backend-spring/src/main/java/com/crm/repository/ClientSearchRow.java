@@ -0,0 +1,9 @@
+package com.crm.repository;
+
+public interface ClientSearchRow {
+    Long getId();
+    Long getAssignedToId();
+    String getClientName();
+    String getCompanyName();
+    String getEmail();
+}
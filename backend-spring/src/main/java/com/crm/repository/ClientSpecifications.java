@@ -0,0 +1,41 @@
+package com.crm.repository;
+
+import com.crm.domain.Client;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public final class ClientSpecifications {
+
+    private ClientSpecifications() {
+    }
+
+    public static Specification<Client> assignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), userId);
+    }
+
+    public static Specification<Client> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Client> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Client> enteredFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("entryDate"), from);
+    }
+
+    public static Specification<Client> enteredTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("entryDate"), to);
+    }
+
+    /** Rows strictly after (createdAt, id) in (created_at DESC, id DESC) order. */
+    public static Specification<Client> after(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.crm.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Daily deal aggregates for the sales timeseries; callers fold the days into week/month buckets. */
+public interface ClientTimeseriesQueries {
+
+    enum DateBasis {
+        CLOSED("c.closedDate", " AND c.status = 'Closed'"),
+        ENTRY("c.entryDate", "");
+
+        final String column;
+        final String condition;
+
+        DateBasis(String column, String condition) {
+            this.column = column;
+            this.condition = condition;
+        }
+    }
+
+    enum Dimension {
+        NONE(null, ""),
+        ASSIGNEE("a.id", " LEFT JOIN c.assignedTo a"),
+        COUNTRY("c.country", ""),
+        SERVICE("s.name", " JOIN c.services cs JOIN cs.service s");
+
+        final String column;
+        final String join;
+
+        Dimension(String column, String join) {
+            this.column = column;
+            this.join = join;
+        }
+    }
+
+    record DailyDeals(LocalDate day, Object dimension, BigDecimal revenue, long deals) {
+    }
+
+    List<DailyDeals> sumDealsByDay(DateBasis basis, Dimension dimension, LocalDate from, LocalDate to, Long assignedToId);
+}
@@ -0,0 +1,33 @@
+package com.crm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+class ClientTimeseriesQueriesImpl implements ClientTimeseriesQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DailyDeals> sumDealsByDay(DateBasis basis, Dimension dimension, LocalDate from, LocalDate to, Long assignedToId) {
+        String groupBy = dimension.column != null ? basis.column + ", " + dimension.column : basis.column;
+        String jpql = "SELECT " + groupBy + ", SUM(c.dealValue), COUNT(c) FROM Client c" + dimension.join
+                + " WHERE " + basis.column + " BETWEEN :from AND :to" + basis.condition
+                + (assignedToId != null ? " AND c.assignedTo.id = :assignedToId" : "")
+                + " GROUP BY " + groupBy;
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", to);
+        if (assignedToId != null) query.setParameter("assignedToId", assignedToId);
+        boolean grouped = dimension.column != null;
+        return query.getResultList().stream()
+                .map(r -> new DailyDeals((LocalDate) r[0], grouped ? r[1] : null,
+                        (BigDecimal) r[grouped ? 2 : 1], ((Number) r[grouped ? 3 : 2]).longValue()))
+                .toList();
+    }
+}
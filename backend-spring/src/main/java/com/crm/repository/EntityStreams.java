@@ -0,0 +1,48 @@
+package com.crm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Forward-only, read-only result streams for exports. Rows are fetched from the driver in batches
+ * of {@link #FETCH_SIZE}; callers detach each row once written so the persistence context stays small.
+ * Must be consumed inside a transaction, and the stream must be closed.
+ */
+@Component
+public class EntityStreams {
+
+    public static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> Stream<T> stream(Class<T> type, Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    public void detach(Object... entities) {
+        for (Object entity : entities) {
+            if (entity != null && entityManager.contains(entity)) entityManager.detach(entity);
+        }
+    }
+}
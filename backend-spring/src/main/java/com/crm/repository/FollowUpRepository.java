@@ -1,10 +1,19 @@
 package com.crm.repository;
 
 import com.crm.domain.FollowUp;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
 
-public interface FollowUpRepository extends JpaRepository<FollowUp, Long> {
+public interface FollowUpRepository extends JpaRepository<FollowUp, Long>, JpaSpecificationExecutor<FollowUp> {
+    Sort SCHEDULE_ORDER = Sort.by(Sort.Order.asc("date"), Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     List<FollowUp> findByClientIdOrderByDateAscCreatedAtDesc(Long clientId);
+
+    default List<FollowUp> findPage(Specification<FollowUp> spec, int limit) {
+        return findBy(spec.and(FollowUpSpecifications.fetchClient()), q -> q.sortBy(SCHEDULE_ORDER).limit(limit).all());
+    }
 }
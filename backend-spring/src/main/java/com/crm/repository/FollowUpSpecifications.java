@@ -0,0 +1,52 @@
+package com.crm.repository;
+
+import com.crm.domain.FollowUp;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public final class FollowUpSpecifications {
+
+    private FollowUpSpecifications() {
+    }
+
+    /** Follow-ups the user created or that belong to a client assigned to them. */
+    public static Specification<FollowUp> visibleTo(Long userId) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("createdBy").get("id"), userId),
+                cb.equal(root.get("client").get("assignedTo").get("id"), userId));
+    }
+
+    public static Specification<FollowUp> forClient(Long clientId) {
+        return (root, query, cb) -> cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<FollowUp> isDone(Boolean done) {
+        return (root, query, cb) -> cb.equal(root.get("done"), done);
+    }
+
+    public static Specification<FollowUp> dateFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<FollowUp> dateTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    /** Rows strictly after (date, createdAt, id) in (date ASC, created_at DESC, id DESC) order. */
+    public static Specification<FollowUp> after(LocalDate date, LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.or(
+                        cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)))));
+    }
+
+    public static Specification<FollowUp> fetchClient() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) root.fetch("client");
+            return cb.conjunction();
+        };
+    }
+}
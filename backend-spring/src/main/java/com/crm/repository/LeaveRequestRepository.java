@@ -2,11 +2,11 @@ package com.crm.repository;
 
 import com.crm.domain.LeaveRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
 
-public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
+public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long>, JpaSpecificationExecutor<LeaveRequest> {
     List<LeaveRequest> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<LeaveRequest> findByStatusOrderByCreatedAtDesc(String status);
-    List<LeaveRequest> findAllByOrderByCreatedAtDesc();
 }
@@ -0,0 +1,18 @@
+package com.crm.repository;
+
+import com.crm.domain.LeaveRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class LeaveRequestSpecifications {
+
+    private LeaveRequestSpecifications() {
+    }
+
+    public static Specification<LeaveRequest> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<LeaveRequest> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
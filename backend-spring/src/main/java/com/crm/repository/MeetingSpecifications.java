@@ -0,0 +1,30 @@
+package com.crm.repository;
+
+import com.crm.domain.Meeting;
+import com.crm.domain.MeetingParticipant;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class MeetingSpecifications {
+
+    private MeetingSpecifications() {
+    }
+
+    /** Meetings the user created or takes part in; an EXISTS subquery, so no duplicate rows. */
+    public static Specification<Meeting> involving(Long userId) {
+        return (root, query, cb) -> {
+            Subquery<Long> participant = query.subquery(Long.class);
+            Root<MeetingParticipant> p = participant.from(MeetingParticipant.class);
+            participant.select(p.get("id")).where(
+                    cb.equal(p.get("meeting"), root),
+                    cb.equal(p.get("user").get("id"), userId));
+            return cb.or(cb.equal(root.get("createdBy").get("id"), userId), cb.exists(participant));
+        };
+    }
+
+    /** Meetings the user created, or that have no creator. */
+    public static Specification<Meeting> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.or(cb.isNull(root.get("createdBy")), cb.equal(root.get("createdBy").get("id"), userId));
+    }
+}
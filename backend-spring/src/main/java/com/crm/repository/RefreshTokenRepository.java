@@ -0,0 +1,32 @@
+package com.crm.repository;
+
+import com.crm.domain.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.jti = :jti AND t.used = false AND t.expiresAt > :now")
+    int markUsed(@Param("jti") String jti, @Param("now") LocalDateTime now);
+
+    /** Loads and row-locks the token until the end of the transaction (SELECT ... FOR UPDATE). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RefreshToken t WHERE t.jti = :jti")
+    Optional<RefreshToken> lockById(@Param("jti") String jti);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.family = :family")
+    int deleteByFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,10 +1,19 @@
 package com.crm.repository;
 
 import com.crm.domain.SalesActivity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
 
-public interface SalesActivityRepository extends JpaRepository<SalesActivity, Long> {
+public interface SalesActivityRepository extends JpaRepository<SalesActivity, Long>, JpaSpecificationExecutor<SalesActivity> {
+    Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     List<SalesActivity> findByUserIdOrderByDateDescCreatedAtDesc(Long userId);
+
+    default List<SalesActivity> findPage(Specification<SalesActivity> spec, int limit) {
+        return findBy(spec.and(SalesActivitySpecifications.fetchUserAndClient()), q -> q.sortBy(NEWEST_FIRST).limit(limit).all());
+    }
 }
@@ -0,0 +1,53 @@
+package com.crm.repository;
+
+import com.crm.domain.SalesActivity;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public final class SalesActivitySpecifications {
+
+    private SalesActivitySpecifications() {
+    }
+
+    public static Specification<SalesActivity> byUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<SalesActivity> forClient(Long clientId) {
+        return (root, query, cb) -> cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<SalesActivity> ofType(String activityType) {
+        return (root, query, cb) -> cb.equal(root.get("activityType"), activityType);
+    }
+
+    public static Specification<SalesActivity> dateFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<SalesActivity> dateTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    /** Rows strictly after (date, createdAt, id) in (date DESC, created_at DESC, id DESC) order. */
+    public static Specification<SalesActivity> after(LocalDate date, LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.or(
+                        cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)))));
+    }
+
+    public static Specification<SalesActivity> fetchUserAndClient() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("user");
+                root.fetch("client", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+}
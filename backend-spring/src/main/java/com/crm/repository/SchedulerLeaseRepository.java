@@ -0,0 +1,24 @@
+package com.crm.repository;
+
+import com.crm.domain.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /** Takes over the lease if it has expired or is already ours; 1 if we now hold it. */
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.leaseUntil = :until "
+            + "WHERE l.name = :name AND (l.leaseUntil <= :now OR l.owner = :owner)")
+    int claim(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /** Creates the lease row; fails with a constraint violation if another instance created it first. */
+    @Modifying
+    @Query("INSERT INTO SchedulerLease (name, owner, leaseUntil) VALUES (:name, :owner, :until)")
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,9 @@
+package com.crm.repository;
+
+public interface TaskBoardRow {
+    Long getAssignedToId();
+    String getStatus();
+    String getPriority();
+    Boolean getOverdue();
+    Long getTasks();
+}
@@ -0,0 +1,6 @@
+package com.crm.repository;
+
+public interface TaskNoteCount {
+    Long getTaskId();
+    long getNotes();
+}
@@ -2,6 +2,17 @@ package com.crm.repository;
 
 import com.crm.domain.TaskNote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TaskNoteRepository extends JpaRepository<TaskNote, Long> {
+
+    @Query("SELECT n FROM TaskNote n JOIN FETCH n.author WHERE n.task.id IN :taskIds ORDER BY n.createdAt DESC")
+    List<TaskNote> findWithAuthorByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT n.task.id AS taskId, COUNT(n) AS notes FROM TaskNote n WHERE n.task.id IN :taskIds GROUP BY n.task.id")
+    List<TaskNoteCount> countByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -0,0 +1,91 @@
+package com.crm.repository;
+
+import com.crm.domain.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sort keys of the task list. Each is a total order on (key, id), so it can be paged with a keyset cursor.
+ * Tasks without a deadline sort as if due on {@link #NO_DEADLINE}, which keeps the order database-independent.
+ */
+public enum TaskOrder {
+    NEWEST("-created_at", true),
+    OLDEST("created_at", false),
+    DEADLINE("deadline", false),
+    DEADLINE_DESC("-deadline", true);
+
+    public static final LocalDate NO_DEADLINE = LocalDate.of(9999, 12, 31);
+
+    private final String param;
+    private final boolean descending;
+
+    TaskOrder(String param, boolean descending) {
+        this.param = param;
+        this.descending = descending;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    /** The order for a {@code sort} request parameter, or null if it names no known key. */
+    public static TaskOrder fromParam(String value) {
+        if (value == null || value.isBlank()) return NEWEST;
+        for (TaskOrder order : values()) {
+            if (order.param.equals(value.trim())) return order;
+        }
+        return null;
+    }
+
+    private boolean byDeadline() {
+        return this == DEADLINE || this == DEADLINE_DESC;
+    }
+
+    private Expression<Comparable<Object>> key(Root<Task> root, CriteriaBuilder cb) {
+        Expression<?> key = byDeadline()
+                ? cb.coalesce(root.<LocalDate>get("deadline"), NO_DEADLINE)
+                : root.<LocalDateTime>get("createdAt");
+        @SuppressWarnings("unchecked")
+        Expression<Comparable<Object>> comparable = (Expression<Comparable<Object>>) key;
+        return comparable;
+    }
+
+    /** Applies this order to the query. Contributes no predicate, so the repository must not add a Sort. */
+    public Specification<Task> orderBy() {
+        return (root, query, cb) -> {
+            query.orderBy(descending
+                    ? List.of(cb.desc(key(root, cb)), cb.desc(root.get("id")))
+                    : List.of(cb.asc(key(root, cb)), cb.asc(root.get("id"))));
+            return null;
+        };
+    }
+
+    /** Rows strictly after (key, id) in this order. */
+    public Specification<Task> after(Comparable<?> key, Long id) {
+        @SuppressWarnings("unchecked")
+        Comparable<Object> value = (Comparable<Object>) key;
+        return (root, query, cb) -> {
+            Expression<Comparable<Object>> k = key(root, cb);
+            return descending
+                    ? cb.or(cb.lessThan(k, value), cb.and(cb.equal(k, value), cb.lessThan(root.get("id"), id)))
+                    : cb.or(cb.greaterThan(k, value), cb.and(cb.equal(k, value), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    /** This order's key value for a row, as stored in a cursor. */
+    public Comparable<?> keyOf(Task task) {
+        if (!byDeadline()) return task.getCreatedAt();
+        return task.getDeadline() != null ? task.getDeadline() : NO_DEADLINE;
+    }
+
+    /** Parses a key value written by {@link #keyOf}; throws DateTimeParseException on malformed input. */
+    public Comparable<?> parseKey(String value) {
+        return byDeadline() ? LocalDate.parse(value) : LocalDateTime.parse(value);
+    }
+}
@@ -2,11 +2,65 @@ package com.crm.repository;
 
 import com.crm.domain.Task;
 import com.crm.domain.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByAssignedToOrderByCreatedAtDesc(User user);
-    List<Task> findAllByOrderByCreatedAtDesc();
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+
+    /**
+     * One page in the given order, with assignee and creator fetched in the same select.
+     * Notes are loaded separately by the caller.
+     */
+    default List<Task> findPage(Specification<Task> spec, TaskOrder order, int limit) {
+        return findBy(spec.and(order.orderBy()), q -> q.project("assignedTo", "createdBy").limit(limit).all());
+    }
+
+    /** Bulk form of {@link Task#refreshOverdue} for deadlines that have lapsed; returns the number of tasks flagged. */
+    @Modifying
+    @Query("UPDATE Task t SET t.overdue = true "
+            + "WHERE t.overdue = false AND t.deadline < :today AND t.status <> 'completed'")
+    int markOverdue(@Param("today") LocalDate today);
+
+    @Query("SELECT t.assignedTo.id AS assignedToId, t.status AS status, t.priority AS priority, t.overdue AS overdue, "
+            + "COUNT(t) AS tasks FROM Task t GROUP BY t.assignedTo.id, t.status, t.priority, t.overdue")
+    List<TaskBoardRow> aggregateBoard();
+
+    /** Loads and row-locks the task until the end of the transaction (SELECT ... FOR UPDATE). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> lockById(@Param("id") Long id);
+
+    /** Locks the rows until the end of the transaction (SELECT ... FOR UPDATE), in id order to avoid deadlocks. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id AS id, t.assignedTo.id AS assignedToId, t.status AS status, t.priority AS priority, "
+            + "t.deadline AS deadline, t.overdue AS overdue FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<TaskStateRow> lockStates(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.assignedTo = :assignee, t.updatedAt = :now WHERE t.id IN :ids")
+    int reassign(@Param("ids") Collection<Long> ids, @Param("assignee") User assignee, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.status = 'completed', t.progress = 100, t.overdue = false, t.completedAt = :now, "
+            + "t.updatedAt = :now WHERE t.id IN :ids")
+    int complete(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /** Sets an open status and re-derives the overdue flag as {@link Task#refreshOverdue} would. */
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.overdue = CASE WHEN t.deadline < :today THEN true ELSE false END, "
+            + "t.updatedAt = :now WHERE t.id IN :ids")
+    int setOpenStatus(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                      @Param("today") LocalDate today, @Param("now") LocalDateTime now);
 }
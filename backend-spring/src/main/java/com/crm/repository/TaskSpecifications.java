@@ -0,0 +1,45 @@
+package com.crm.repository;
+
+import com.crm.domain.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> assignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), userId);
+    }
+
+    public static Specification<Task> createdBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("createdBy").get("id"), userId);
+    }
+
+    public static Specification<Task> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(String priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> deadlineFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("deadline"), from);
+    }
+
+    public static Specification<Task> deadlineTo(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("deadline"), to);
+    }
+
+    /** Overdue is materialized in its own column (see TaskOverdueSweep), so this is an index lookup. */
+    public static Specification<Task> overdue() {
+        return (root, query, cb) -> cb.isTrue(root.get("overdue"));
+    }
+
+    public static Specification<Task> notOverdue() {
+        return (root, query, cb) -> cb.isFalse(root.get("overdue"));
+    }
+}
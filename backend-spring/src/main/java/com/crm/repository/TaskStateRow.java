@@ -0,0 +1,12 @@
+package com.crm.repository;
+
+import java.time.LocalDate;
+
+public interface TaskStateRow {
+    Long getId();
+    Long getAssignedToId();
+    String getStatus();
+    String getPriority();
+    LocalDate getDeadline();
+    Boolean getOverdue();
+}
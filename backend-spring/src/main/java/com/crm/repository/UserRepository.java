@@ -2,14 +2,29 @@ package com.crm.repository;
 
 import com.crm.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailIgnoreCase(String email);
     Optional<User> findByUsername(String username);
-    boolean existsByEmail(String email);
+    boolean existsByEmailIgnoreCase(String email);
     boolean existsByUsername(String username);
     boolean existsByRoleIgnoreCase(String role);
+
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmailsLowercase(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /** Users whose tokens are not simply "version 0, active": the input for the token version registry. */
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, u.active AS active FROM User u "
+            + "WHERE u.tokenVersion > 0 OR u.active = false")
+    List<UserTokenState> findNonDefaultTokenStates();
 }
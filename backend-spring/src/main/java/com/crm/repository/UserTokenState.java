@@ -0,0 +1,7 @@
+package com.crm.repository;
+
+public interface UserTokenState {
+    Long getId();
+    Integer getTokenVersion();
+    Boolean getActive();
+}
@@ -0,0 +1,80 @@
+package com.crm.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency (gradient style). Every window, the average latency of the
+ * window is compared with a slow-moving long-term average: while they agree the limit grows by about
+ * sqrt(limit); when latency rises (requests queueing for database connections or CPU) the limit shrinks in
+ * proportion, down to half per window. Growth only happens while the limit is actually being used.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = 500_000_000L;
+    private static final int MIN_SAMPLES = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder windowNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double limit;
+    private double longRttNanos;
+
+    AdaptiveConcurrencyLimit(int initial, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initial));
+    }
+
+    /** Claims a slot; false if the limit is reached. Every true must be paired with {@link #release}. */
+    boolean tryAcquire() {
+        int n = inFlight.incrementAndGet();
+        if (n > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        peakInFlight.accumulateAndGet(n, Math::max);
+        return true;
+    }
+
+    void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        windowNanos.add(latencyNanos);
+        windowSamples.increment();
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowSamples.sum() >= MIN_SAMPLES && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    /** Runs on the one thread that closed the window. */
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        double shortRtt = (double) windowNanos.sumThenReset() / Math.max(1, samples);
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos * 0.95 + shortRtt * 0.05;
+        // After a sustained slowdown the long-term average drifts up; pull it back so the limit can recover.
+        if (longRttNanos / shortRtt > 2) longRttNanos *= 0.95;
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRtt));
+        if (gradient == 1.0 && peak < current / 2) return;
+        double target = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.crm.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. Hashing walks the characters in place, so neither
+ * {@link #add} nor {@link #mightContain} allocates. Safe for concurrent use.
+ */
+final class BloomFilter {
+
+    private static final int HASHES = 5;
+    private static final int BITS_PER_ENTRY = 16;
+    private static final int MIN_BITS = 1 << 16;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    /** Sized for {@code expected} entries at well under 1% false positives. */
+    BloomFilter(int expected) {
+        long wanted = Math.max(MIN_BITS, (long) expected * BITS_PER_ENTRY);
+        int bits = (int) Math.min(1L << 30, Long.highestOneBit(wanted - 1) << 1);
+        this.words = new AtomicLongArray(bits >>> 6);
+        this.mask = bits - 1;
+    }
+
+    void add(String s) {
+        int h1 = mix(s.hashCode());
+        int h2 = secondHash(s);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            long m = 1L << bit;
+            int w = bit >>> 6;
+            long old;
+            while (((old = words.get(w)) & m) == 0 && !words.compareAndSet(w, old, old | m)) {
+                // retry
+            }
+        }
+    }
+
+    boolean mightContain(String s) {
+        int h1 = mix(s.hashCode());
+        int h2 = secondHash(s);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** FNV-1a over the characters, forced odd so the probe sequence cycles through the whole table. */
+    private static int secondHash(String s) {
+        int h = 0x811c9dc5;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x01000193;
+        }
+        return mix(h) | 1;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,97 @@
+package com.crm.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache whose entries expire a fixed time (or a shorter per-entry time) after they are written. Reads are lock-free;
+ * when a write finds the cache full it drops expired entries, then the oldest tenth of the rest.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+    }
+
+    /** The live value for {@code key}, or null (counted as a miss) if absent or expired. */
+    public V get(K key) {
+        Entry<V> e = entries.get(key);
+        if (e != null && e.expiresAt() - System.nanoTime() > 0) {
+            hits.increment();
+            return e.value();
+        }
+        if (e != null && entries.remove(key, e)) evictions.increment();
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos / 1_000_000);
+    }
+
+    /** Stores with a per-entry lifetime, capped at the cache's TTL. */
+    public void put(K key, V value, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) return;
+        if (entries.size() >= maxSize && !entries.containsKey(key)) makeRoom();
+        entries.put(key, new Entry<>(value, System.nanoTime() + Math.min(ttlMillis * 1_000_000, ttlNanos)));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Entries dropped because they expired or the cache was full (explicit invalidations are not counted). */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private synchronized void makeRoom() {
+        if (entries.size() < maxSize) return;
+        long now = System.nanoTime();
+        List<Map.Entry<K, Entry<V>>> live = new ArrayList<>(entries.size());
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (e.getValue().expiresAt() - now <= 0) {
+                if (entries.remove(e.getKey(), e.getValue())) evictions.increment();
+            } else {
+                live.add(e);
+            }
+        }
+        int excess = live.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess <= 0) return;
+        live.sort(Comparator.comparingLong(e -> e.getValue().expiresAt()));
+        for (int i = 0; i < excess && i < live.size(); i++) {
+            if (entries.remove(live.get(i).getKey(), live.get(i).getValue())) evictions.increment();
+        }
+    }
+}
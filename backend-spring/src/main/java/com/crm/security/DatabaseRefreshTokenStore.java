@@ -0,0 +1,60 @@
+package com.crm.security;
+
+import com.crm.domain.RefreshToken;
+import com.crm.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/** Refresh tokens in the {@code refresh_tokens} table, shared by every instance. */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-store", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    @Transactional
+    public void save(String jti, String family, Long userId, Instant expiresAt) {
+        refreshTokenRepository.save(RefreshToken.builder().jti(jti).family(family).userId(userId).expiresAt(local(expiresAt)).build());
+    }
+
+    @Override
+    @Transactional
+    public Outcome consume(String jti) {
+        if (refreshTokenRepository.markUsed(jti, LocalDateTime.now()) == 1) return Outcome.ROTATED;
+        return refreshTokenRepository.findById(jti)
+                .filter(t -> t.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(t -> Outcome.REUSED)
+                .orElse(Outcome.UNKNOWN);
+    }
+
+    @Override
+    @Transactional
+    public void revokeFamily(String family) {
+        refreshTokenRepository.deleteByFamily(family);
+    }
+
+    /** Row-locks the token, so a concurrent {@link #revokeFamily} that has deleted it is waited for. */
+    @Override
+    @Transactional
+    public boolean exists(String jti) {
+        return refreshTokenRepository.lockById(jti).isPresent();
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Instant now) {
+        return refreshTokenRepository.deleteExpired(local(now));
+    }
+
+    private static LocalDateTime local(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
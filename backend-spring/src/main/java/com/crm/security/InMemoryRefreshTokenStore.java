@@ -0,0 +1,80 @@
+package com.crm.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** Refresh tokens held in this instance's memory; tokens do not survive a restart. Expiry is indexed for the sweeper. */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private record Entry(String family, Instant expiresAt, AtomicBoolean used) {
+    }
+
+    private record Expiry(Instant at, String jti) {
+    }
+
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> families = new ConcurrentHashMap<>();
+    private final NavigableSet<Expiry> byExpiry = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Expiry::at).thenComparing(Expiry::jti));
+
+    @Override
+    public void save(String jti, String family, Long userId, Instant expiresAt) {
+        tokens.put(jti, new Entry(family, expiresAt, new AtomicBoolean()));
+        families.computeIfAbsent(family, f -> ConcurrentHashMap.newKeySet()).add(jti);
+        byExpiry.add(new Expiry(expiresAt, jti));
+    }
+
+    @Override
+    public Outcome consume(String jti) {
+        Entry e = tokens.get(jti);
+        if (e == null || !e.expiresAt().isAfter(Instant.now())) return Outcome.UNKNOWN;
+        return e.used().compareAndSet(false, true) ? Outcome.ROTATED : Outcome.REUSED;
+    }
+
+    @Override
+    public void revokeFamily(String family) {
+        // Under the family's map lock, so a concurrent save into the family either lands before and is
+        // removed here, or starts a new set after this revocation has forgotten every earlier token.
+        families.computeIfPresent(family, (f, jtis) -> {
+            jtis.forEach(tokens::remove);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean exists(String jti) {
+        return tokens.containsKey(jti);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int removed = 0;
+        Expiry head;
+        while ((head = byExpiry.pollFirst()) != null) {
+            if (head.at().isAfter(now)) {
+                byExpiry.add(head);
+                break;
+            }
+            String jti = head.jti();
+            Entry e = tokens.remove(jti);
+            if (e == null) continue;
+            removed++;
+            families.computeIfPresent(e.family(), (f, jtis) -> {
+                jtis.remove(jti);
+                return jtis.isEmpty() ? null : jtis;
+            });
+        }
+        return removed;
+    }
+}
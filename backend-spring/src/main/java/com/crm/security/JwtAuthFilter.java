@@ -1,15 +1,14 @@
 package com.crm.security;
 
+import com.crm.domain.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,7 +19,10 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final JwtProperties props;
+    private final TokenDenylist denylist;
 
     @Override
     protected void doFilterInternal(
@@ -35,20 +37,31 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         String token = authHeader.substring(7);
         try {
-            String username = jwtService.getUsernameFromToken(token);
+            Claims claims = jwtService.parseClaims(token);
+            String username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userDetailsService.loadUserByUsername(username);
-                var auth = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
+                JwtAuthentication auth = resolve(claims);
+                if (auth != null) SecurityContextHolder.getContext().setAuthentication(auth);
             }
         } catch (Exception ignored) {
             // invalid token
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The (cached, shared) authentication for a verified access token, or null if it is a refresh token, was
+     * revoked, its version is stale or the user is disabled.
+     */
+    private JwtAuthentication resolve(Claims claims) {
+        if (JwtService.isRefreshToken(claims) || denylist.isRevoked(claims.getId())) return null;
+        int version = JwtService.versionOf(claims);
+        if (props.getAuthMode() == JwtProperties.AuthMode.CLAIMS) {
+            JwtAuthentication auth = jwtService.authenticationFromClaims(claims);
+            return auth != null && tokenVersions.isCurrent(auth.getPrincipal().getId(), version) ? auth : null;
+        }
+        JwtAuthentication auth = principalCache.load(claims.getSubject());
+        User user = auth.getPrincipal();
+        return user.isEnabled() && JwtService.versionOf(user) == version ? auth : null;
+    }
 }
@@ -0,0 +1,43 @@
+package com.crm.security;
+
+import com.crm.domain.User;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Authenticated principal from a verified access token. Built once per cached principal and shared by every
+ * request that presents it, so it carries no credentials and ignores request details; it can be marked
+ * untrusted but never re-marked authenticated.
+ */
+public final class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private final User principal;
+
+    public JwtAuthentication(User principal) {
+        super(principal.getAuthorities());
+        this.principal = principal;
+        super.setAuthenticated(true);
+    }
+
+    @Override
+    public User getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Cannot set this token to trusted; it is created authenticated.");
+        }
+        super.setAuthenticated(false);
+    }
+
+    /** Ignored: the instance is shared across requests, so per-request details are not attached. */
+    @Override
+    public void setDetails(Object details) {
+    }
+}
@@ -14,4 +14,12 @@ public class JwtProperties {
     private String secret;
     private long accessValidityMs = 900_000;
     private long refreshValidityMs = 604_800_000;
+    /** DATABASE loads the principal (cached) from the users table; CLAIMS builds it from the verified token alone. */
+    private AuthMode authMode = AuthMode.DATABASE;
+    /** How often CLAIMS mode reloads token versions, to pick up changes made by other instances. */
+    private long versionRefreshMs = 30_000;
+    /** Verified tokens whose claims are kept until the token expires; 0 disables the cache. */
+    private int claimsCacheSize = 10_000;
+
+    public enum AuthMode { DATABASE, CLAIMS }
 }
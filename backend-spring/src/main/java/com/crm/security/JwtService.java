@@ -2,56 +2,159 @@ package com.crm.security;
 
 import com.crm.domain.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    public static final String VERSION_CLAIM = "ver";
+    public static final String TYPE_CLAIM = "typ";
+    public static final String FAMILY_CLAIM = "fam";
+    private static final String REFRESH_TYPE = "refresh";
+
     private final JwtProperties props;
     private final SecretKey key;
+    private final JwtParser parser;
+    private final BoundedTtlCache<String, Claims> verified;
+    private final BoundedTtlCache<String, JwtAuthentication> claimsAuthentications;
 
-    public JwtService(JwtProperties props) {
+    public JwtService(JwtProperties props, MeterRegistry meterRegistry) {
         this.props = props;
         this.key = Keys.hmacShaKeyFor(props.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = new BoundedTtlCache<>(props.getClaimsCacheSize(), Math.max(props.getAccessValidityMs(), props.getRefreshValidityMs()));
+        FunctionCounter.builder("cache.gets", verified, BoundedTtlCache::hits).tag("cache", "jwt-claims").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", verified, BoundedTtlCache::misses).tag("cache", "jwt-claims").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", verified, BoundedTtlCache::evictions).tag("cache", "jwt-claims").register(meterRegistry);
+        Gauge.builder("cache.size", verified, BoundedTtlCache::size).tag("cache", "jwt-claims").register(meterRegistry);
+        this.claimsAuthentications = new BoundedTtlCache<>(props.getClaimsCacheSize(), props.getAccessValidityMs());
     }
 
     public String buildAccessToken(User user) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getUsername())
                 .claim("userId", user.getId())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole())
+                .claim(VERSION_CLAIM, versionOf(user))
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + props.getAccessValidityMs()))
                 .signWith(key)
                 .compact();
     }
 
-    public String buildRefreshToken(User user) {
+    /** Refresh tokens are only accepted by {@link RefreshTokenService}; {@link JwtAuthFilter} rejects them. */
+    public String buildRefreshToken(User user, String jti, String family, Instant expiresAt) {
         return Jwts.builder()
+                .id(jti)
                 .subject(user.getUsername())
                 .claim("userId", user.getId())
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .claim(FAMILY_CLAIM, family)
+                .claim(VERSION_CLAIM, versionOf(user))
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + props.getRefreshValidityMs()))
+                .expiration(Date.from(expiresAt))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verified claims of a token. A token that verified before is served from memory until it expires.
+     * The cache is keyed by the token's SHA-256, so live credentials are not kept as heap keys; any altered
+     * token has a different digest, misses and is verified in full.
+     */
     public Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = digest(token);
+        Claims claims = verified.get(digest);
+        if (claims != null) return claims;
+        claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verified.put(digest, claims, claims.getExpiration().getTime() - System.currentTimeMillis());
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public String getUsernameFromToken(String token) {
         return parseClaims(token).getSubject();
     }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class));
+    }
+
+    public static int versionOf(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    /** Token version claim; tokens issued before versioning count as version 0. */
+    public static int versionOf(Claims claims) {
+        Number ver = claims.get(VERSION_CLAIM, Number.class);
+        return ver != null ? ver.intValue() : 0;
+    }
+
+    /**
+     * Authentication for claims-only mode, reused across requests of the same user while the token asserts
+     * the same identity, role and version; null if the token has no user id.
+     */
+    public JwtAuthentication authenticationFromClaims(Claims claims) {
+        String username = claims.getSubject();
+        JwtAuthentication cached = username != null ? claimsAuthentications.get(username) : null;
+        if (cached != null && cached.isAuthenticated() && asserts(claims, cached.getPrincipal())) return cached;
+        User principal = principalFromClaims(claims);
+        if (principal == null) return null;
+        JwtAuthentication authentication = new JwtAuthentication(principal);
+        if (username != null) claimsAuthentications.put(username, authentication);
+        return authentication;
+    }
+
+    private static boolean asserts(Claims claims, User principal) {
+        Number userId = claims.get("userId", Number.class);
+        return userId != null && userId.longValue() == principal.getId()
+                && versionOf(claims) == versionOf(principal)
+                && Objects.equals(claims.get("role", String.class), principal.getRole())
+                && Objects.equals(claims.get("email", String.class), principal.getEmail());
+    }
+
+    /**
+     * A detached principal carrying only what the token asserts (id, username, email, role). Enough for
+     * authorization and for use as an association reference; anything else must be read from the database.
+     */
+    public User principalFromClaims(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        if (userId == null) return null;
+        return User.builder()
+                .id(userId.longValue())
+                .username(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .role(claims.get("role", String.class))
+                .tokenVersion(versionOf(claims))
+                .active(true)
+                .build();
+    }
 }
@@ -0,0 +1,92 @@
+package com.crm.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps login bursts off the request threads. Password hashing runs on a small bounded pool (a full queue
+ * is refused with 503), and attempts are rate limited per email and per client address (429) before any
+ * hashing is queued. Meters: {@code login.hash} (hash time), {@code login.hash.queue},
+ * {@code login.hash.active} and {@code login.rejected{reason}}.
+ */
+@Component
+@Slf4j
+public class LoginGuard {
+
+    private final ThreadPoolExecutor hashPool;
+    private final TokenBuckets<String> perEmail;
+    private final TokenBuckets<String> perAddress;
+    private final Timer hashTimer;
+    private final Counter rejectedEmail;
+    private final Counter rejectedAddress;
+    private final Counter rejectedOverload;
+
+    public LoginGuard(MeterRegistry meterRegistry,
+                      @Value("${security.login.hash-threads:0}") int hashThreads,
+                      @Value("${security.login.hash-queue:1000}") int hashQueue,
+                      @Value("${security.login.per-email.capacity:10}") int emailCapacity,
+                      @Value("${security.login.per-email.refill-per-second:0.2}") double emailRefill,
+                      @Value("${security.login.per-address.capacity:1000}") int addressCapacity,
+                      @Value("${security.login.per-address.refill-per-second:20}") double addressRefill) {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger n = new AtomicInteger();
+        this.hashPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueue), r -> {
+                    Thread t = new Thread(r, "login-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.perEmail = new TokenBuckets<>(emailCapacity, emailRefill, 100_000);
+        this.perAddress = new TokenBuckets<>(addressCapacity, addressRefill, 100_000);
+        this.hashTimer = Timer.builder("login.hash").register(meterRegistry);
+        Gauge.builder("login.hash.queue", hashPool, p -> p.getQueue().size()).register(meterRegistry);
+        Gauge.builder("login.hash.active", hashPool, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.rejectedEmail = Counter.builder("login.rejected").tag("reason", "email").register(meterRegistry);
+        this.rejectedAddress = Counter.builder("login.rejected").tag("reason", "address").register(meterRegistry);
+        this.rejectedOverload = Counter.builder("login.rejected").tag("reason", "overload").register(meterRegistry);
+    }
+
+    /** Throws 429 if this email or client address has used up its attempts. */
+    public void admit(String email, String clientAddress) {
+        if (clientAddress != null && !perAddress.tryAcquire(clientAddress)) {
+            rejectedAddress.increment();
+            throw tooMany();
+        }
+        if (!perEmail.tryAcquire(email.toLowerCase(Locale.ROOT))) {
+            rejectedEmail.increment();
+            throw tooMany();
+        }
+    }
+
+    /** Runs a password check on the hashing pool; 503 if its queue is full. */
+    public <T> CompletableFuture<T> hash(Supplier<T> check) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(check), hashPool);
+        } catch (RejectedExecutionException e) {
+            rejectedOverload.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many logins in progress. Try again shortly.");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    private static ResponseStatusException tooMany() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Try again later.");
+    }
+}
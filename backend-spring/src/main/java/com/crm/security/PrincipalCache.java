@@ -0,0 +1,56 @@
+package com.crm.security;
+
+import com.crm.domain.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authenticated principals by username, so {@link JwtAuthFilter} does not read the users table on every
+ * request. Entries live for {@code security.principal-cache.ttl-ms}; {@link com.crm.service.UserService}
+ * evicts a user explicitly when it changes or is deleted. Exposed as the {@code cache.*} meters with
+ * {@code cache=principals}.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String NAME = "principals";
+
+    private final UserDetailsService userDetailsService;
+    private final BoundedTtlCache<String, JwtAuthentication> cache;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public PrincipalCache(UserDetailsService userDetailsService, MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-ms:60000}") long ttlMs) {
+        this.userDetailsService = userDetailsService;
+        this.cache = new BoundedTtlCache<>(maxSize, ttlMs);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::hits).tag("cache", NAME).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::misses).tag("cache", NAME).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::evictions).tag("cache", NAME).register(meterRegistry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size).tag("cache", NAME).register(meterRegistry);
+    }
+
+    /** The user's authentication, built once per cache entry and shared by the requests that hit it. */
+    public JwtAuthentication load(String username) {
+        JwtAuthentication authentication = cache.get(username);
+        if (authentication != null && authentication.isAuthenticated()) return authentication;
+        long seen = epoch.get();
+        authentication = new JwtAuthentication((User) userDetailsService.loadUserByUsername(username));
+        // Skip caching if an eviction ran meanwhile: the row we read may predate it.
+        if (epoch.get() == seen) cache.put(username, authentication);
+        return authentication;
+    }
+
+    public void evict(String... usernames) {
+        epoch.incrementAndGet();
+        for (String username : usernames) {
+            if (username != null) cache.invalidate(username);
+        }
+    }
+}
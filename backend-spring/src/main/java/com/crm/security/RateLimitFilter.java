@@ -0,0 +1,190 @@
+package com.crm.security;
+
+import com.crm.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs after {@link JwtAuthFilter}. Authenticated requests take a token from the user's bucket for the route
+ * group (429 with Retry-After when empty). Every request then needs a slot under its endpoint's
+ * {@link AdaptiveConcurrencyLimit} (503 when none is free), which sheds load as latency rises, before the
+ * database pool is exhausted. Decisions are counted in {@code ratelimit.requests{group,result}}; each
+ * endpoint exposes {@code ratelimit.concurrency.limit} and {@code ratelimit.concurrency.in_flight}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_GROUP = "default";
+    private static final int MAX_ENDPOINTS = 128;
+    private static final int MAX_USERS = 100_000;
+
+    private final RateLimitProperties props;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBuckets<Long>> buckets = new HashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    private enum Result { ALLOWED, THROTTLED, OVERLOADED }
+
+    public RateLimitFilter(RateLimitProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        props.getGroups().putIfAbsent(DEFAULT_GROUP, new RateLimitProperties.Bucket());
+        props.getGroups().forEach((group, b) -> buckets.put(group, new TokenBuckets<>(b.getCapacity(), b.getRefillPerSecond(), MAX_USERS)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !props.isEnabled() || path(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = path(request);
+        int groupEnd = path.indexOf('/', 1);
+        String group = groupEnd > 0 ? path.substring(1, groupEnd) : path.substring(1);
+        if (!buckets.containsKey(group)) group = DEFAULT_GROUP;
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user && user.getId() != null) {
+            long waitNanos = buckets.get(group).acquire(user.getId());
+            if (waitNanos > 0) {
+                count(group, Result.THROTTLED);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L)));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded. Slow down and retry later.");
+                return;
+            }
+        }
+
+        AdaptiveConcurrencyLimit limit = limitFor(endpoint(path, groupEnd));
+        if (!limit.tryAcquire()) {
+            count(group, Result.OVERLOADED);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Retry shortly.");
+            return;
+        }
+        count(group, Result.ALLOWED);
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limit, started));
+                async = true;
+            }
+        } finally {
+            if (!async) limit.release(System.nanoTime() - started);
+        }
+    }
+
+    /** Holds an async request's slot (streaming exports, async login) until the response is actually finished. */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final long started;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimit limit, long started) {
+            this.limit = limit;
+            this.started = started;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) limit.release(System.nanoTime() - started);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String context = request.getContextPath();
+        String path = uri.startsWith(context) ? uri.substring(context.length()) : uri;
+        return path.isEmpty() ? "/" : path;
+    }
+
+    /** First two path segments ("/sales/clients"), or just the first if the second looks like an id. */
+    private static String endpoint(String path, int groupEnd) {
+        if (groupEnd < 0) return path;
+        int end = path.indexOf('/', groupEnd + 1);
+        if (end < 0) end = path.length();
+        for (int i = groupEnd + 1; i < end; i++) {
+            char c = path.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c == '-' || c == '_')) return path.substring(0, groupEnd);
+        }
+        return path.substring(0, end);
+    }
+
+    private AdaptiveConcurrencyLimit limitFor(String endpoint) {
+        AdaptiveConcurrencyLimit limit = limits.get(endpoint);
+        if (limit != null) return limit;
+        // Paths are client-controlled; past the cap, unknown endpoints share one limit.
+        String key = limits.size() < MAX_ENDPOINTS ? endpoint : "other";
+        return limits.computeIfAbsent(key, k -> {
+            RateLimitProperties.Concurrency c = props.getConcurrency();
+            AdaptiveConcurrencyLimit created = new AdaptiveConcurrencyLimit(c.getInitial(), c.getMin(), c.getMax());
+            Gauge.builder("ratelimit.concurrency.limit", created, AdaptiveConcurrencyLimit::limit).tag("endpoint", k).register(meterRegistry);
+            Gauge.builder("ratelimit.concurrency.in_flight", created, AdaptiveConcurrencyLimit::inFlight).tag("endpoint", k).register(meterRegistry);
+            return created;
+        });
+    }
+
+    private void count(String group, Result result) {
+        counters.computeIfAbsent(group, g -> {
+            Counter[] byResult = new Counter[Result.values().length];
+            for (Result r : Result.values()) {
+                byResult[r.ordinal()] = Counter.builder("ratelimit.requests").tag("group", g)
+                        .tag("result", r.name().toLowerCase()).register(meterRegistry);
+            }
+            return byResult;
+        })[result.ordinal()].increment();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"detail\":\"" + detail + "\"}");
+    }
+}
@@ -0,0 +1,36 @@
+package com.crm.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /** Per-user token bucket by route group (first path segment: sales, tasks...); "default" covers the rest. */
+    private Map<String, Bucket> groups = new HashMap<>();
+    /** Adaptive concurrency limit applied to each endpoint (first two path segments). */
+    private Concurrency concurrency = new Concurrency();
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private int capacity = 200;
+        private double refillPerSecond = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private int initial = 20;
+        private int min = 4;
+        private int max = 200;
+    }
+}
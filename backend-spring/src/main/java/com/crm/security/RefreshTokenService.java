@@ -0,0 +1,107 @@
+package com.crm.security;
+
+import com.crm.domain.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One-time-use refresh tokens. Every token belongs to a family started at login; rotating a token
+ * marks it used and issues its successor in the same family. Presenting a used token again means it
+ * leaked, so the whole family is revoked and the holder has to log in again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final JwtService jwtService;
+    private final JwtProperties props;
+    private final RefreshTokenStore store;
+
+    /** A consumed refresh token: its jti, who it was for and which family its successor joins. */
+    public record Rotation(String jti, Long userId, int version, String family) {
+    }
+
+    /** Starts a new family (at login). */
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    public String issue(User user, String family) {
+        String jti = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plusMillis(props.getRefreshValidityMs());
+        String token = jwtService.buildRefreshToken(user, jti, family, expiresAt);
+        store.save(jti, family, user.getId(), expiresAt);
+        return token;
+    }
+
+    /**
+     * Issues the successor of a rotated token. A replay may have revoked the family between {@link #rotate}
+     * and this save; that revocation also forgot the rotated token, so when it is gone the successor is
+     * revoked as well and the refresh fails.
+     */
+    public String issueSuccessor(User user, Rotation rotation) {
+        String token = issue(user, rotation.family());
+        if (!store.exists(rotation.jti())) {
+            store.revokeFamily(rotation.family());
+            throw invalid();
+        }
+        return token;
+    }
+
+    public Rotation rotate(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw invalid();
+        }
+        String family = claims.get(JwtService.FAMILY_CLAIM, String.class);
+        Number userId = claims.get("userId", Number.class);
+        if (!JwtService.isRefreshToken(claims) || claims.getId() == null || family == null || userId == null) throw invalid();
+        switch (store.consume(claims.getId())) {
+            case ROTATED:
+                return new Rotation(claims.getId(), userId.longValue(), JwtService.versionOf(claims), family);
+            case REUSED:
+                log.warn("Refresh token reuse for user {}; revoking its token family.", userId);
+                store.revokeFamily(family);
+                throw invalid();
+            default:
+                throw invalid();
+        }
+    }
+
+    public void revokeFamily(String family) {
+        store.revokeFamily(family);
+    }
+
+    /** Revokes the family of a presented refresh token (logout); invalid tokens are ignored. */
+    public void revoke(String token) {
+        try {
+            Claims claims = jwtService.parseClaims(token);
+            String family = claims.get(JwtService.FAMILY_CLAIM, String.class);
+            if (JwtService.isRefreshToken(claims) && family != null) store.revokeFamily(family);
+        } catch (JwtException | IllegalArgumentException ignored) {
+            // nothing to revoke
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jwt.refresh-sweep-ms:600000}", fixedDelayString = "${jwt.refresh-sweep-ms:600000}")
+    public void sweep() {
+        int removed = store.deleteExpired(Instant.now());
+        if (removed > 0) log.debug("Removed {} expired refresh tokens.", removed);
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token.");
+    }
+}
@@ -0,0 +1,36 @@
+package com.crm.security;
+
+import java.time.Instant;
+
+/**
+ * Issued refresh tokens by jti. Selected with {@code jwt.refresh-store}: {@code memory} (default, per instance)
+ * or {@code database} (shared by all instances).
+ */
+public interface RefreshTokenStore {
+
+    enum Outcome {
+        /** The token was live and unused and is now marked used. */
+        ROTATED,
+        /** The token was already used: someone is replaying it. */
+        REUSED,
+        /** Never issued, expired, or its family was revoked. */
+        UNKNOWN
+    }
+
+    void save(String jti, String family, Long userId, Instant expiresAt);
+
+    /** Atomically marks the token used; at most one caller ever gets {@link Outcome#ROTATED} for a jti. */
+    Outcome consume(String jti);
+
+    /** Forgets every token of the family, so none of them can be rotated again. */
+    void revokeFamily(String family);
+
+    /**
+     * Whether the token is still on record, used or not; false once its family has been revoked. Waits for a
+     * revocation that is in progress.
+     */
+    boolean exists(String jti);
+
+    /** Drops expired tokens; returns how many were removed. */
+    int deleteExpired(Instant now);
+}
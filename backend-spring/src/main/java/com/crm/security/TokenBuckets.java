@@ -0,0 +1,73 @@
+package com.crm.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets by key (email, client address, user id...). Each bucket holds up to {@code capacity} tokens
+ * and refills continuously; a call takes one token or is refused. Lock-free: a bucket is one {@link AtomicLong}
+ * holding the time at which it will be full again (GCRA), updated with compare-and-set, and the table is a
+ * {@link ConcurrentHashMap}, whose bins are locked independently. Once {@code maxKeys} are tracked, full buckets
+ * are dropped, then the fullest remaining ones down to 90% of {@code maxKeys}. Drained buckets are evicted last,
+ * so spraying new keys cannot reset a limit that is being enforced.
+ */
+public final class TokenBuckets<K> {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<K, AtomicLong> fullAt = new ConcurrentHashMap<>();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    public TokenBuckets(int capacity, double refillPerSecond, int maxKeys) {
+        this.intervalNanos = Math.max(1, Math.round(1e9 / refillPerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, capacity);
+        this.maxKeys = maxKeys;
+    }
+
+    /** Takes a token from the key's bucket; false if it is empty. */
+    public boolean tryAcquire(K key) {
+        return acquire(key) == 0;
+    }
+
+    /** Takes a token and returns 0, or returns the nanoseconds until one will be available. */
+    public long acquire(K key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = fullAt.get(key);
+        if (bucket == null) {
+            if (fullAt.size() >= maxKeys) prune(now);
+            AtomicLong created = new AtomicLong(now);
+            bucket = fullAt.putIfAbsent(key, created);
+            if (bucket == null) bucket = created;
+        }
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    public int size() {
+        return fullAt.size();
+    }
+
+    private void prune(long now) {
+        if (!pruning.compareAndSet(false, true)) return;
+        try {
+            // A full bucket carries no state worth keeping.
+            fullAt.values().removeIf(b -> b.get() - now <= 0);
+            int keep = maxKeys * 9 / 10;
+            if (fullAt.size() <= keep) return;
+            // Keep the buckets that refill last, i.e. the most drained.
+            long[] refillAt = fullAt.values().stream().mapToLong(b -> b.get() - now).sorted().toArray();
+            if (refillAt.length <= keep) return;
+            long cutoff = refillAt[refillAt.length - keep];
+            fullAt.values().removeIf(b -> b.get() - now < cutoff);
+        } finally {
+            pruning.set(false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.crm.security;
+
+import com.crm.domain.RevokedToken;
+import com.crm.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before expiry, by jti. The exact set is persisted in {@code revoked_tokens};
+ * {@link #isRevoked} first asks an in-memory Bloom filter, so the common not-revoked case costs a few
+ * array reads and no allocation. Revocations made by other instances arrive with the periodic reload,
+ * which also drops expired entries and rebuilds the filter.
+ */
+@Component
+@Slf4j
+public class TokenDenylist {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    /** The filter and the exact set it was built from; swapped together on reload. */
+    private record State(BloomFilter bloom, Map<String, Long> expiresAt) {
+    }
+
+    private volatile State state = new State(new BloomFilter(0), new ConcurrentHashMap<>());
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        Gauge.builder("token.denylist.size", this, d -> d.state.expiresAt().size()).register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        State s = state;
+        return s.bloom().mightContain(jti) && s.expiresAt().containsKey(jti);
+    }
+
+    /** Rejects the token from now on, on this instance immediately and on others after their next reload. */
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) return;
+        synchronized (this) {
+            // Exact entry first: a reader that sees the Bloom bit must find it.
+            state.expiresAt().put(jti, expiresAt.toEpochMilli());
+            state.bloom().add(jti);
+        }
+        revokedTokenRepository.save(RevokedToken.builder().jti(jti).userId(userId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())).build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.denylist-refresh-ms:60000}", fixedDelayString = "${jwt.denylist-refresh-ms:60000}")
+    @Transactional
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        int pruned = revokedTokenRepository.deleteExpired(now);
+        Map<String, Long> fresh = new ConcurrentHashMap<>();
+        for (RevokedToken t : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            fresh.put(t.getJti(), t.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        long nowMillis = System.currentTimeMillis();
+        synchronized (this) {
+            // Keep local revocations whose row was saved after the query ran.
+            state.expiresAt().forEach((jti, until) -> {
+                if (until > nowMillis) fresh.putIfAbsent(jti, until);
+            });
+            BloomFilter bloom = new BloomFilter(fresh.size() * 2);
+            fresh.keySet().forEach(bloom::add);
+            state = new State(bloom, fresh);
+        }
+        if (pruned > 0) log.debug("Pruned {} expired revoked tokens; {} remain.", pruned, fresh.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.crm.security;
+
+import com.crm.repository.UserRepository;
+import com.crm.repository.UserTokenState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current token version per user for claims-only authentication. Only users whose version is not 0 or who
+ * are disabled or deleted have an entry, so the map stays small. Local changes apply immediately; changes
+ * made by other instances arrive with the periodic reload (deletions made elsewhere are not seen, and such
+ * tokens stay valid until they expire). Versions only grow, so a token newer than what this instance knows
+ * was issued after a change made elsewhere: it is accepted and its version is recorded.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    /** Tokens at {@code version} are valid if {@code active}; older ones never are. */
+    private record State(int version, boolean active) {
+    }
+
+    private static final State DELETED = new State(Integer.MAX_VALUE, false);
+
+    private final UserRepository userRepository;
+    private final JwtProperties props;
+
+    private final Map<Long, State> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> deletedUntil = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public boolean isCurrent(Long userId, int version) {
+        State known = versions.get(userId);
+        int knownVersion = known != null ? known.version() : 0;
+        if (version < knownVersion) return false;
+        if (version == knownVersion) return known == null || known.active();
+        versions.merge(userId, new State(version, true), (a, b) -> b.version() > a.version() ? b : a);
+        return true;
+    }
+
+    public synchronized void update(Long userId, int version, boolean active) {
+        changes.incrementAndGet();
+        if (version == 0 && active) versions.remove(userId);
+        else versions.put(userId, new State(version, active));
+    }
+
+    /** Rejects the user's outstanding tokens; kept until every token issued before the deletion has expired. */
+    public synchronized void revoke(Long userId) {
+        changes.incrementAndGet();
+        deletedUntil.put(userId, System.currentTimeMillis() + Math.max(props.getAccessValidityMs(), props.getRefreshValidityMs()));
+        versions.put(userId, DELETED);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${jwt.version-refresh-ms:30000}", fixedDelayString = "${jwt.version-refresh-ms:30000}")
+    public void reload() {
+        if (props.getAuthMode() != JwtProperties.AuthMode.CLAIMS) return;
+        long seen = changes.get();
+        Map<Long, State> fresh = new HashMap<>();
+        for (UserTokenState s : userRepository.findNonDefaultTokenStates()) {
+            int version = s.getTokenVersion() != null ? s.getTokenVersion() : 0;
+            fresh.put(s.getId(), new State(version, Boolean.TRUE.equals(s.getActive())));
+        }
+        long now = System.currentTimeMillis();
+        deletedUntil.values().removeIf(until -> until < now);
+        deletedUntil.keySet().forEach(id -> fresh.put(id, DELETED));
+        synchronized (this) {
+            // A local change during the query may be newer than what we read; the next reload picks it up.
+            if (changes.get() != seen) return;
+            versions.keySet().retainAll(fresh.keySet());
+            versions.putAll(fresh);
+        }
+    }
+}
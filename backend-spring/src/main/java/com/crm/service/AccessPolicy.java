@@ -0,0 +1,80 @@
+package com.crm.service;
+
+import com.crm.domain.*;
+import com.crm.repository.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Which rows a user may see. Each rule is a {@link Specification} (null when the user sees everything), so
+ * list queries and single-row lookups only load visible rows. {@link #findVisible} still distinguishes
+ * "not yours" (403) from "does not exist" (404), at the cost of an existence check on the refusal path only.
+ */
+final class AccessPolicy {
+
+    private AccessPolicy() {
+    }
+
+    static boolean seesAll(User user) {
+        return user.can(Permission.VIEW_ALL);
+    }
+
+    /** The requested owner filter for users who see everything; otherwise the user themself. */
+    static Long ownerScope(User user, Long requested) {
+        return seesAll(user) ? requested : user.getId();
+    }
+
+    static Specification<Client> clients(User user) {
+        return seesAll(user) ? null : ClientSpecifications.assignedTo(user.getId());
+    }
+
+    static Specification<FollowUp> followUps(User user) {
+        return seesAll(user) ? null : FollowUpSpecifications.visibleTo(user.getId());
+    }
+
+    static Specification<Task> tasks(User user) {
+        return seesAll(user) ? null : TaskSpecifications.assignedTo(user.getId());
+    }
+
+    static Specification<LeaveRequest> leaveRequests(User user) {
+        return seesAll(user) ? null : LeaveRequestSpecifications.forUser(user.getId());
+    }
+
+    static Specification<Meeting> meetings(User user) {
+        return seesAll(user) ? null : MeetingSpecifications.involving(user.getId());
+    }
+
+    static Specification<Meeting> deletableMeetings(User user) {
+        return seesAll(user) ? null : MeetingSpecifications.ownedBy(user.getId());
+    }
+
+    /** The row with this id if {@code visibility} admits it; 404 if it does not exist, 403 if it is not visible. */
+    static <T, R extends JpaRepository<T, Long> & JpaSpecificationExecutor<T>> T findVisible(
+            R repository, Long id, Specification<T> visibility, String notFound, String forbidden) {
+        if (visibility == null) {
+            return repository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, notFound));
+        }
+        Specification<T> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return repository.findOne(byId.and(visibility)).orElseThrow(() -> repository.existsById(id)
+                ? new ResponseStatusException(HttpStatus.FORBIDDEN, forbidden)
+                : new ResponseStatusException(HttpStatus.NOT_FOUND, notFound));
+    }
+
+    /**
+     * {@link #findVisible} after locking the row (SELECT ... FOR UPDATE) with {@code lockById}, for writes that
+     * compute counter deltas from the row's current values: a concurrent write of the same row waits until this
+     * transaction commits instead of reading the same "before" state.
+     */
+    static <T, R extends JpaRepository<T, Long> & JpaSpecificationExecutor<T>> T lockVisible(
+            R repository, Function<Long, Optional<T>> lockById, Long id, Specification<T> visibility,
+            String notFound, String forbidden) {
+        if (lockById.apply(id).isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFound);
+        return findVisible(repository, id, visibility, notFound, forbidden);
+    }
+}
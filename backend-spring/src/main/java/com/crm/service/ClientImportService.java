@@ -0,0 +1,330 @@
+package com.crm.service;
+
+import com.crm.domain.Service;
+import com.crm.domain.User;
+import com.crm.repository.ClientRepository;
+import com.crm.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Streams client rows from CSV (header row required) or NDJSON, validates each row and inserts
+ * valid ones with JDBC batches, one transaction per chunk. Only one chunk is held in memory.
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClientImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Set<String> STATUSES = Set.of("Prospect", "Negotiation", "Closed", "Lost");
+    private static final String UNTERMINATED_QUOTE = "Unterminated quoted field; the rest of the file was not read.";
+    private static final String INSERT_CLIENT = "INSERT INTO clients (client_name, company_name, email, contact_no, address, country, "
+            + "status, deal_value, entry_date, closed_date, next_follow_up, assigned_to_id, comments, team_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLIENT_SERVICE = "INSERT INTO client_services (client_id, service_id, created_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ClientRepository clientRepository;
+    private final ServiceCatalog serviceCatalog;
+    private final UserRepository userRepository;
+    private final ClientSearchIndex clientSearchIndex;
+    private final SalesFunnelCounters salesFunnelCounters;
+    private final SalesTimeseries salesTimeseries;
+
+    private record Row(int line, String clientName, String companyName, String email, String contactNo, String address,
+                       String country, String status, BigDecimal dealValue, LocalDate entryDate, LocalDate closedDate,
+                       LocalDate nextFollowUp, Long assignedToId, String comments, String teamId, Set<Long> serviceIds) {
+    }
+
+    private static final class RowException extends Exception {
+        RowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /** Per-import state: memoized lookups, the pending chunk and the running report. */
+    private final class Run {
+        final User current;
+        final Set<String> knownEmails;
+        final Map<Long, Boolean> userExists = new HashMap<>();
+        final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        final List<Map<String, Object>> errors = new ArrayList<>();
+        int rows;
+        int inserted;
+        int failed;
+
+        Run(User current) {
+            this.current = current;
+            this.knownEmails = new HashSet<>(clientRepository.findAllEmailsLowercase());
+        }
+
+        void accept(int line, Map<String, String> values) {
+            rows++;
+            try {
+                Row row = validate(this, line, values);
+                knownEmails.add(row.email().toLowerCase(Locale.ROOT));
+                chunk.add(row);
+                if (chunk.size() >= CHUNK_SIZE) flush();
+            } catch (RowException e) {
+                error(line, e.getMessage());
+            }
+        }
+
+        void error(int line, String detail) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(Map.of("line", line, "detail", detail));
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            List<Row> batch = List.copyOf(chunk);
+            chunk.clear();
+            try {
+                inserted += new TransactionTemplate(transactionManager).execute(status -> insert(batch));
+            } catch (DataAccessException e) {
+                log.warn("Client import chunk of {} rows failed: {}", batch.size(), e.getMostSpecificCause().getMessage());
+                for (Row row : batch) {
+                    knownEmails.remove(row.email().toLowerCase(Locale.ROOT));
+                    error(row.line(), "Database rejected the row's chunk: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> importClients(InputStream body, DataFormat format, User current) throws IOException {
+        long started = System.nanoTime();
+        Run run = new Run(current);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == DataFormat.CSV) readCsv(reader, run);
+        else readNdjson(reader, run);
+        run.flush();
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 1e-9);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", run.rows);
+        report.put("inserted", run.inserted);
+        report.put("failed", run.failed);
+        report.put("errors", run.errors);
+        report.put("errors_truncated", run.failed > run.errors.size());
+        report.put("elapsed_ms", Math.round(seconds * 1000));
+        report.put("rows_per_second", Math.round(run.rows / seconds));
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+        if (csv.unterminated()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unterminated quoted field in the header row.");
+        List<String> columns = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            if (csv.unterminated()) {
+                run.rows++;
+                run.error(csv.line(), UNTERMINATED_QUOTE);
+                continue;
+            }
+            if (record.size() != columns.size()) {
+                run.rows++;
+                run.error(csv.line(), "Expected " + columns.size() + " fields but found " + record.size() + ".");
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) values.put(columns.get(i), record.get(i));
+            run.accept(csv.line(), values);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String text;
+        int line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            Map<String, Object> json;
+            try {
+                json = objectMapper.readValue(text, new TypeReference<>() {
+                });
+            } catch (JsonProcessingException e) {
+                run.rows++;
+                run.error(line, "Malformed JSON.");
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            json.forEach((k, v) -> values.put(k.toLowerCase(Locale.ROOT),
+                    v == null ? null : v instanceof List<?> list ? String.join(";", list.stream().map(String::valueOf).toList()) : String.valueOf(v)));
+            run.accept(line, values);
+        }
+    }
+
+    private Row validate(Run run, int line, Map<String, String> v) throws RowException {
+        String clientName = required(v, "client_name", 255);
+        String email = required(v, "email", 255);
+        if (!email.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) throw new RowException("Invalid email.");
+        if (run.knownEmails.contains(email.toLowerCase(Locale.ROOT))) throw new RowException("A client with this email already exists.");
+        String status = optional(v, "status", 20);
+        if (status == null) status = "Prospect";
+        else if (!STATUSES.contains(status)) throw new RowException("Invalid status.");
+        BigDecimal dealValue = BigDecimal.ZERO;
+        String deal = optional(v, "deal_value", 32);
+        if (deal != null) {
+            try {
+                dealValue = new BigDecimal(deal);
+            } catch (NumberFormatException e) {
+                throw new RowException("Invalid deal_value.");
+            }
+        }
+        LocalDate entryDate = date(v, "entry_date");
+        LocalDate closedDate = date(v, "closed_date");
+        // Same default as moving a client to Closed by hand: it closed today.
+        if (closedDate == null && "Closed".equals(status)) closedDate = LocalDate.now();
+        Long assignedToId = AccessPolicy.ownerScope(run.current, id(v, "assigned_to"));
+        if (assignedToId != null && !run.userExists.computeIfAbsent(assignedToId, userRepository::existsById)) {
+            throw new RowException("Unknown assigned_to user.");
+        }
+        Set<Long> serviceIds = new LinkedHashSet<>();
+        String ids = optional(v, "service_ids", Integer.MAX_VALUE);
+        if (ids != null) {
+            for (String part : ids.split(";")) {
+                if (part.isBlank()) continue;
+                Service svc;
+                try {
+                    svc = serviceCatalog.findById(Long.valueOf(part.trim())).orElse(null);
+                } catch (NumberFormatException e) {
+                    throw new RowException("Invalid service_ids.");
+                }
+                if (svc == null) throw new RowException("Unknown service id " + part.trim() + ".");
+                serviceIds.add(svc.getId());
+            }
+        }
+        String names = optional(v, "services", Integer.MAX_VALUE);
+        if (names != null) {
+            for (String part : names.split(";")) {
+                if (part.isBlank()) continue;
+                Service svc = serviceCatalog.findByName(part.trim()).orElse(null);
+                if (svc == null) throw new RowException("Unknown service " + part.trim() + ".");
+                serviceIds.add(svc.getId());
+            }
+        }
+        return new Row(line, clientName, optional(v, "company_name", 255), email, optional(v, "contact_no", 20),
+                optional(v, "address", Integer.MAX_VALUE), optional(v, "country", 100), status, dealValue,
+                entryDate != null ? entryDate : LocalDate.now(), closedDate, date(v, "next_follow_up"),
+                assignedToId, optional(v, "comments", Integer.MAX_VALUE), optional(v, "team_id", 100), serviceIds);
+    }
+
+    private int insert(List<Row> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_CLIENT, new String[]{"id"}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row r = batch.get(i);
+                ps.setString(1, r.clientName());
+                ps.setString(2, r.companyName());
+                ps.setString(3, r.email());
+                ps.setString(4, r.contactNo());
+                ps.setString(5, r.address());
+                ps.setString(6, r.country());
+                ps.setString(7, r.status());
+                ps.setBigDecimal(8, r.dealValue());
+                ps.setDate(9, Date.valueOf(r.entryDate()));
+                ps.setDate(10, r.closedDate() != null ? Date.valueOf(r.closedDate()) : null);
+                ps.setDate(11, r.nextFollowUp() != null ? Date.valueOf(r.nextFollowUp()) : null);
+                if (r.assignedToId() != null) ps.setLong(12, r.assignedToId());
+                else ps.setNull(12, Types.BIGINT);
+                ps.setString(13, r.comments());
+                ps.setString(14, r.teamId());
+                ps.setTimestamp(15, now);
+                ps.setTimestamp(16, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        }, keys);
+        List<Long> ids = keys.getKeyList().stream().map(k -> ((Number) k.get(k.containsKey("id") ? "id" : "ID")).longValue()).toList();
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            for (Long serviceId : batch.get(i).serviceIds()) links.add(new Object[]{ids.get(i), serviceId, now});
+        }
+        if (!links.isEmpty()) jdbcTemplate.batchUpdate(INSERT_CLIENT_SERVICE, links);
+        for (int i = 0; i < batch.size(); i++) {
+            Row r = batch.get(i);
+            Long id = ids.get(i);
+            salesFunnelCounters.record(null, new SalesFunnelCounters.Facts(r.assignedToId(), r.status(), r.dealValue(), r.entryDate(), r.closedDate()));
+            AfterCommit.run(() -> {
+                clientSearchIndex.put(id, r.assignedToId(), r.clientName(), r.companyName(), r.email());
+                salesTimeseries.invalidate(r.entryDate(), r.closedDate());
+            });
+        }
+        return batch.size();
+    }
+
+    private static String optional(Map<String, String> v, String key, int maxLength) throws RowException {
+        String value = v.get(key);
+        if (value == null || value.isBlank()) return null;
+        value = value.trim();
+        if (value.length() > maxLength) throw new RowException(key + " is longer than " + maxLength + " characters.");
+        return value;
+    }
+
+    private static String required(Map<String, String> v, String key, int maxLength) throws RowException {
+        String value = optional(v, key, maxLength);
+        if (value == null) throw new RowException(key + " is required.");
+        return value;
+    }
+
+    private static LocalDate date(Map<String, String> v, String key) throws RowException {
+        String value = optional(v, key, 32);
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RowException("Invalid " + key + " (expected YYYY-MM-DD).");
+        }
+    }
+
+    private static Long id(Map<String, String> v, String key) throws RowException {
+        String value = optional(v, key, 32);
+        if (value == null) return null;
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid " + key + ".");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.crm.service;
+
+import com.crm.repository.ClientRepository;
+import com.crm.repository.ClientSearchRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over client name, company name and email.
+ * Terms are matched exactly, by prefix, by substring and with small typos (edit distance on
+ * trigram candidates), and every query term must match. Built at startup and kept current by
+ * {@link SalesService} after each committed client write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClientSearchIndex {
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.8;
+    private static final double SUBSTRING = 0.6;
+    private static final double FUZZY = 0.4;
+    private static final int GRAM = 3;
+
+    private final ClientRepository clientRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> gramTokens = new HashMap<>();
+
+    private record Doc(Long assignedToId, Set<String> tokens) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ClientSearchRow> rows = clientRepository.findAllSearchRows();
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            gramTokens.clear();
+            for (ClientSearchRow row : rows) {
+                add(row.getId(), row.getAssignedToId(), tokenize(row.getClientName(), row.getCompanyName(), row.getEmail()));
+            }
+            log.info("Client search index built: {} clients, {} terms.", docs.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, Long assignedToId, String clientName, String companyName, String email) {
+        Set<String> tokens = tokenize(clientName, companyName, email);
+        lock.writeLock().lock();
+        try {
+            remove(id, docs.remove(id));
+            add(id, assignedToId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(id, docs.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of clients matching every term of {@code query}, best match first.
+     * When {@code assignedToId} is set only clients assigned to that user are returned.
+     */
+    public List<Long> search(String query, Long assignedToId, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) return List.of();
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term, assignedToId);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term, Long assignedToId) {
+        Map<String, Double> tokenScores = new HashMap<>();
+        for (String token : postings.subMap(term, true, term + Character.MAX_VALUE, true).keySet()) {
+            tokenScores.put(token, token.equals(term) ? EXACT : PREFIX);
+        }
+        if (term.length() >= GRAM) {
+            Set<String> grams = grams(term);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String token : gramTokens.getOrDefault(gram, Set.of())) shared.merge(token, 1, Integer::sum);
+            }
+            int maxTypos = term.length() <= 5 ? 1 : 2;
+            int minShared = grams.size() - GRAM * maxTypos;
+            shared.forEach((token, count) -> {
+                if (tokenScores.containsKey(token)) return;
+                if (token.contains(term)) {
+                    tokenScores.put(token, SUBSTRING);
+                } else if (count >= minShared) {
+                    int typos = Math.min(distance(term, token),
+                            token.length() > term.length() ? distance(term, token.substring(0, term.length())) : Integer.MAX_VALUE);
+                    if (typos <= maxTypos) tokenScores.put(token, FUZZY / typos);
+                }
+            });
+        }
+        Map<Long, Double> result = new HashMap<>();
+        tokenScores.forEach((token, score) -> {
+            for (Long id : postings.get(token)) {
+                if (assignedToId != null && !assignedToId.equals(docs.get(id).assignedToId())) continue;
+                result.merge(id, score, Math::max);
+            }
+        });
+        return result;
+    }
+
+    private void add(Long id, Long assignedToId, Set<String> tokens) {
+        docs.put(id, new Doc(assignedToId, tokens));
+        for (String token : tokens) {
+            Set<Long> ids = postings.computeIfAbsent(token, t -> {
+                for (String gram : grams(t)) gramTokens.computeIfAbsent(gram, g -> new HashSet<>()).add(t);
+                return new HashSet<>();
+            });
+            ids.add(id);
+        }
+    }
+
+    private void remove(Long id, Doc doc) {
+        if (doc == null) return;
+        for (String token : doc.tokens()) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> tokens = gramTokens.get(gram);
+                    if (tokens != null && tokens.remove(token) && tokens.isEmpty()) gramTokens.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokenize(String... values) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String value : values) {
+            if (value == null) continue;
+            for (String token : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /** Trigrams of the token padded with boundary markers, so short words and word starts still share grams. */
+    private static Set<String> grams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) grams.add(padded.substring(i, i + GRAM));
+        return grams;
+    }
+
+    /** Optimal string alignment distance (Levenshtein plus adjacent transpositions). */
+    private static int distance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
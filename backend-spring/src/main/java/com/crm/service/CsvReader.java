@@ -0,0 +1,70 @@
+package com.crm.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Minimal streaming RFC 4180 reader: quoted fields, escaped quotes and line breaks inside quotes. */
+final class CsvReader {
+
+    private final BufferedReader in;
+    private int consumedLines;
+    private int recordLine;
+    private boolean unterminated;
+
+    CsvReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    /** Line number at which the last returned record started (1-based). */
+    int line() {
+        return recordLine;
+    }
+
+    /** Whether the last returned record hit end of input inside a quoted field (it then holds the rest of the input). */
+    boolean unterminated() {
+        return unterminated;
+    }
+
+    /** Next record, or null at end of input. */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        recordLine = consumedLines + 1;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    if (c == '\n') consumedLines++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        unterminated = quoted;
+        consumedLines++;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,41 @@
+package com.crm.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/** Row-oriented wire formats for bulk import and export. */
+public enum DataFormat {
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DataFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /** An explicit {@code format} parameter wins; otherwise NDJSON when the given media type mentions JSON, else CSV. */
+    public static DataFormat resolve(String format, String mediaType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format.");
+            }
+        }
+        return mediaType != null && mediaType.toLowerCase(Locale.ROOT).contains("json") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * Opaque keyset cursor: the sort key values of the last row of a page, joined and Base64url-encoded.
+ * Callers decode it back into the same number of parts and parse each one.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... parts) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Object part : parts) joiner.add(String.valueOf(part));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) throw new IllegalArgumentException();
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
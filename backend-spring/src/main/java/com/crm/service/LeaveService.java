@@ -1,10 +1,15 @@
 package com.crm.service;
 
 import com.crm.domain.LeaveRequest;
+import com.crm.domain.Permission;
 import com.crm.domain.User;
 import com.crm.dto.*;
 import com.crm.repository.LeaveRequestRepository;
+import com.crm.repository.LeaveRequestSpecifications;
+import com.crm.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +25,7 @@ import java.util.stream.Collectors;
 public class LeaveService {
 
     private final LeaveRequestRepository leaveRequestRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
 
     private UserDto toUserDto(User u) {
@@ -46,29 +52,18 @@ public class LeaveService {
 
     @Transactional(readOnly = true)
     public List<LeaveRequestDto> listLeaveRequests(User current, String statusFilter, Long userId) {
-        List<LeaveRequest> list;
-        if (current.isAdminOrHr()) {
-            list = statusFilter != null
-                    ? leaveRequestRepository.findByStatusOrderByCreatedAtDesc(statusFilter)
-                    : leaveRequestRepository.findAllByOrderByCreatedAtDesc();
-            if (userId != null) {
-                list = list.stream().filter(lr -> lr.getUser().getId().equals(userId)).collect(Collectors.toList());
-            }
-        } else {
-            list = leaveRequestRepository.findByUserIdOrderByCreatedAtDesc(current.getId());
-            if (statusFilter != null) {
-                list = list.stream().filter(lr -> statusFilter.equals(lr.getStatus())).collect(Collectors.toList());
-            }
-        }
-        return list.stream().map(lr -> toDto(lr)).collect(Collectors.toList());
+        Long visibleUser = AccessPolicy.ownerScope(current, userId);
+        Specification<LeaveRequest> spec = Specification.where(null);
+        if (visibleUser != null) spec = spec.and(LeaveRequestSpecifications.forUser(visibleUser));
+        if (statusFilter != null) spec = spec.and(LeaveRequestSpecifications.hasStatus(statusFilter));
+        return leaveRequestRepository.findAll(spec, Sort.by(Sort.Direction.DESC, "createdAt"))
+                .stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public LeaveRequestDto getLeaveRequest(Long id, User current) {
-        LeaveRequest lr = leaveRequestRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Leave request not found."));
-        if (!current.isAdminOrHr() && !lr.getUser().getId().equals(current.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this leave request.");
-        }
+        LeaveRequest lr = AccessPolicy.findVisible(leaveRequestRepository, id, AccessPolicy.leaveRequests(current),
+                "Leave request not found.", "Not allowed to view this leave request.");
         return toDto(lr);
     }
 
@@ -76,7 +71,7 @@ public class LeaveService {
     public LeaveRequestDto createLeaveRequest(LeaveRequestCreateDto dto, User current) {
         validateDates(dto.getStartDate(), dto.getEndDate(), true);
         LeaveRequest lr = LeaveRequest.builder()
-                .user(current)
+                .user(userRepository.getReferenceById(current.getId()))
                 .startDate(dto.getStartDate())
                 .endDate(dto.getEndDate())
                 .leaveType(dto.getLeaveType() != null ? dto.getLeaveType() : "Paid Leave")
@@ -121,7 +116,7 @@ public class LeaveService {
 
     @Transactional
     public LeaveRequestDto updateStatus(Long id, LeaveRequestStatusDto dto, User current) {
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.APPROVE_LEAVE)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to approve/reject leave requests.");
         }
         LeaveRequest lr = leaveRequestRepository.findById(id)
@@ -135,20 +130,22 @@ public class LeaveService {
         lr.setStatus(dto.getStatus());
         lr.setRejectionReason(dto.getRejectionReason());
         if ("approved".equals(dto.getStatus()) || "rejected".equals(dto.getStatus())) {
-            lr.setApprovedBy(current);
+            lr.setApprovedBy(userRepository.getReferenceById(current.getId()));
             lr.setApprovedAt(LocalDateTime.now());
         }
         lr = leaveRequestRepository.save(lr);
         return toDto(lr);
     }
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> myLeaves(User current) {
         return leaveRequestRepository.findByUserIdOrderByCreatedAtDesc(current.getId())
                 .stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> pending(User current) {
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.APPROVE_LEAVE)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to view pending leave requests.");
         }
         return leaveRequestRepository.findByStatusOrderByCreatedAtDesc("pending")
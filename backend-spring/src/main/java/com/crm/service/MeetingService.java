@@ -7,10 +7,9 @@ import com.crm.dto.*;
 import com.crm.repository.MeetingRepository;
 import com.crm.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,18 +24,14 @@ public class MeetingService {
 
     @Transactional(readOnly = true)
     public List<MeetingDto> listMeetings(User current) {
-        List<Meeting> meetings = current.isAdminOrHr()
-                ? meetingRepository.findAllByOrderByScheduledAtDesc()
-                : meetingRepository.findMeetingsForUser(current.getId());
+        List<Meeting> meetings = meetingRepository.findAll(AccessPolicy.meetings(current), Sort.by(Sort.Direction.DESC, "scheduledAt"));
         return meetings.stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public MeetingDto getMeeting(Long id, User current) {
-        Meeting meeting = meetingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Meeting not found."));
-        if (!current.isAdminOrHr() && !isParticipantOrCreator(meeting, current)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this meeting.");
-        }
+        Meeting meeting = AccessPolicy.findVisible(meetingRepository, id, AccessPolicy.meetings(current),
+                "Meeting not found.", "Not allowed to view this meeting.");
         return toDto(meeting);
     }
 
@@ -69,11 +64,8 @@ public class MeetingService {
 
     @Transactional
     public MeetingDto updateMeeting(Long id, MeetingUpdateDto dto, User current) {
-        Meeting meeting = meetingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Meeting not found."));
-        if (!current.isAdminOrHr() && !isParticipantOrCreator(meeting, current)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to update this meeting.");
-        }
+        Meeting meeting = AccessPolicy.findVisible(meetingRepository, id, AccessPolicy.meetings(current),
+                "Meeting not found.", "Not allowed to update this meeting.");
         if (dto.getTitle() != null) meeting.setTitle(dto.getTitle());
         if (dto.getDescription() != null) meeting.setDescription(dto.getDescription());
         if (dto.getScheduledAt() != null) meeting.setScheduledAt(dto.getScheduledAt());
@@ -97,19 +89,11 @@ public class MeetingService {
 
     @Transactional
     public void deleteMeeting(Long id, User current) {
-        Meeting meeting = meetingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Meeting not found."));
-        if (!current.isAdminOrHr() && meeting.getCreatedBy() != null && !meeting.getCreatedBy().getId().equals(current.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to delete this meeting.");
-        }
+        Meeting meeting = AccessPolicy.findVisible(meetingRepository, id, AccessPolicy.deletableMeetings(current),
+                "Meeting not found.", "Not allowed to delete this meeting.");
         meetingRepository.delete(meeting);
     }
 
-    private boolean isParticipantOrCreator(Meeting m, User u) {
-        if (m.getCreatedBy() != null && m.getCreatedBy().getId().equals(u.getId())) return true;
-        return m.getParticipants().stream().anyMatch(p -> p.getUser().getId().equals(u.getId()));
-    }
-
     private UserMinimalDto toMinimal(User u) {
         if (u == null) return null;
         String name = (u.getFirstName() != null ? u.getFirstName() : "") + " " + (u.getLastName() != null ? u.getLastName() : "");
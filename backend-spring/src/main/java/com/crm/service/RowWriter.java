@@ -0,0 +1,81 @@
+package com.crm.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** Writes flat rows as CSV (with a header row) or NDJSON, one row at a time, without buffering the export. */
+final class RowWriter implements AutoCloseable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final DataFormat format;
+    private final List<String> columns;
+    private final Writer out;
+    private final JsonGenerator json;
+
+    RowWriter(DataFormat format, List<String> columns, OutputStream stream) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == DataFormat.NDJSON) {
+            json = JSON.createGenerator(out);
+            json.setRootValueSeparator(null);
+        } else {
+            json = null;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) out.write(',');
+                writeCsv(columns.get(i));
+            }
+            out.write("\r\n");
+        }
+    }
+
+    /** Values in column order; dates and timestamps are written in ISO format. */
+    void row(Object... values) throws IOException {
+        if (json != null) {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                json.writeFieldName(columns.get(i));
+                Object v = values[i];
+                if (v == null) json.writeNull();
+                else if (v instanceof BigDecimal d) json.writeNumber(d);
+                else if (v instanceof Long l) json.writeNumber(l);
+                else if (v instanceof Boolean b) json.writeBoolean(b);
+                else json.writeString(v.toString());
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+            return;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) out.write(',');
+            if (values[i] != null) writeCsv(values[i].toString());
+        }
+        out.write("\r\n");
+    }
+
+    private void writeCsv(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) json.flush();
+        out.flush();
+    }
+}
@@ -0,0 +1,185 @@
+package com.crm.service;
+
+import com.crm.domain.Client;
+import com.crm.repository.ClientFunnelRow;
+import com.crm.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sales funnel counters (status counts, closed revenue, time to close) per assignee and overall,
+ * so /sales/clients/analytics never scans the clients table. Client writes apply deltas after commit;
+ * the counters are rebuilt with one GROUP BY at startup and periodically checked against the table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesFunnelCounters {
+
+    private static final Long UNASSIGNED = 0L;
+
+    private final ClientRepository clientRepository;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Map<Long, Funnel> byAssignee = new HashMap<>(); // guarded by this
+    private Funnel global = Funnel.EMPTY; // guarded by this
+    private long applied; // guarded by this
+
+    /** The fields of a client that the funnel depends on, captured before and after a write. */
+    public record Facts(Long assignedToId, String status, BigDecimal dealValue, LocalDate entryDate, LocalDate closedDate) {
+        public static Facts of(Client c) {
+            return new Facts(c.getAssignedTo() != null ? c.getAssignedTo().getId() : null,
+                    c.getStatus(), c.getDealValue(), c.getEntryDate(), c.getClosedDate());
+        }
+    }
+
+    /** Records a client write; {@code before} is null for creates and {@code after} is null for deletes. */
+    public void record(Facts before, Facts after) {
+        inFlight.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                apply(before, after);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) apply(before, after);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    public synchronized Map<String, Object> analytics(Long assignedToId) {
+        Funnel f = assignedToId == null ? global : byAssignee.getOrDefault(assignedToId, Funnel.EMPTY);
+        double conversionRate = f.total() > 0 ? (f.closed() * 100.0 / f.total()) : 0;
+        double avgDays = f.closeCount() > 0 ? (double) f.closeDays() / f.closeCount() : 0;
+        Map<String, Object> result = new HashMap<>();
+        result.put("total_revenue", f.closedRevenue().doubleValue());
+        result.put("conversion_funnel", Map.of("total_leads", f.total(), "prospect", f.prospect(), "negotiation", f.negotiation(), "closed", f.closed(), "lost", f.lost()));
+        result.put("conversion_rate", Math.round(conversionRate * 100) / 100.0);
+        result.put("average_time_to_close", Math.round(avgDays));
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reconcile(true);
+    }
+
+    @Scheduled(initialDelayString = "${sales.funnel.verify-interval-ms:600000}", fixedDelayString = "${sales.funnel.verify-interval-ms:600000}")
+    public void verify() {
+        reconcile(false);
+    }
+
+    /**
+     * Recomputes the counters from the table. Skipped while client writes are in flight, because the
+     * table may already contain rows whose deltas have not been applied yet.
+     */
+    private void reconcile(boolean initial) {
+        long seen;
+        synchronized (this) {
+            if (inFlight.get() > 0) return;
+            seen = applied;
+        }
+        Map<Long, Funnel> fresh = new HashMap<>();
+        Funnel freshGlobal = Funnel.EMPTY;
+        for (ClientFunnelRow row : clientRepository.aggregateFunnel()) {
+            Funnel f = Funnel.of(row);
+            fresh.merge(row.getAssignedToId() != null ? row.getAssignedToId() : UNASSIGNED, f, Funnel::plus);
+            freshGlobal = freshGlobal.plus(f);
+        }
+        synchronized (this) {
+            if (applied != seen || inFlight.get() > 0) return;
+            if (!initial && fresh.equals(byAssignee) && freshGlobal.equals(global)) return;
+            if (!initial) log.warn("Sales funnel counters drifted from the clients table; replacing them.");
+            byAssignee = fresh;
+            global = freshGlobal;
+        }
+        if (initial) log.info("Sales funnel counters built: {} clients across {} assignees.", freshGlobal.total(), fresh.size());
+    }
+
+    private synchronized void apply(Facts before, Facts after) {
+        if (before != null) add(before, -1);
+        if (after != null) add(after, 1);
+        applied++;
+    }
+
+    private void add(Facts facts, int sign) {
+        Funnel delta = Funnel.of(facts, sign);
+        byAssignee.merge(facts.assignedToId() != null ? facts.assignedToId() : UNASSIGNED, delta, (a, b) -> {
+            Funnel sum = a.plus(b);
+            return sum.equals(Funnel.EMPTY) ? null : sum;
+        });
+        global = global.plus(delta);
+    }
+
+    private record Funnel(long total, long prospect, long negotiation, long closed, long lost,
+                          BigDecimal closedRevenue, long closeDays, long closeCount) {
+
+        static final Funnel EMPTY = new Funnel(0, 0, 0, 0, 0, BigDecimal.ZERO, 0, 0);
+
+        static Funnel of(Facts f, int sign) {
+            boolean isClosed = "Closed".equals(f.status());
+            boolean timed = isClosed && f.entryDate() != null && f.closedDate() != null;
+            BigDecimal revenue = isClosed && f.dealValue() != null ? f.dealValue() : BigDecimal.ZERO;
+            return new Funnel(sign,
+                    "Prospect".equals(f.status()) ? sign : 0,
+                    "Negotiation".equals(f.status()) ? sign : 0,
+                    isClosed ? sign : 0,
+                    "Lost".equals(f.status()) ? sign : 0,
+                    sign < 0 ? revenue.negate() : revenue,
+                    timed ? sign * ChronoUnit.DAYS.between(f.entryDate(), f.closedDate()) : 0,
+                    timed ? sign : 0);
+        }
+
+        static Funnel of(ClientFunnelRow row) {
+            long n = row.getClients();
+            boolean isClosed = "Closed".equals(row.getStatus());
+            return new Funnel(n,
+                    "Prospect".equals(row.getStatus()) ? n : 0,
+                    "Negotiation".equals(row.getStatus()) ? n : 0,
+                    isClosed ? n : 0,
+                    "Lost".equals(row.getStatus()) ? n : 0,
+                    isClosed && row.getDealValue() != null ? row.getDealValue() : BigDecimal.ZERO,
+                    isClosed ? row.getCloseDays() : 0,
+                    isClosed ? row.getCloseCount() : 0);
+        }
+
+        Funnel plus(Funnel o) {
+            return new Funnel(total + o.total, prospect + o.prospect, negotiation + o.negotiation, closed + o.closed,
+                    lost + o.lost, closedRevenue.add(o.closedRevenue), closeDays + o.closeDays, closeCount + o.closeCount);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Funnel f && total == f.total && prospect == f.prospect && negotiation == f.negotiation
+                    && closed == f.closed && lost == f.lost && closedRevenue.compareTo(f.closedRevenue) == 0
+                    && closeDays == f.closeDays && closeCount == f.closeCount;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(total);
+        }
+    }
+}
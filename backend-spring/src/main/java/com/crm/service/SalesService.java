@@ -4,15 +4,22 @@ import com.crm.domain.*;
 import com.crm.dto.*;
 import com.crm.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,34 +31,148 @@ public class SalesService {
     private final SalesActivityRepository salesActivityRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ClientSearchIndex clientSearchIndex;
+    private final SalesFunnelCounters salesFunnelCounters;
+    private final SalesTimeseries salesTimeseries;
+    private final EntityStreams entityStreams;
+    private final ServiceCatalog serviceCatalog;
 
-    private UserDto toUserDto(User u) {
-        if (u == null) return null;
-        return userService.getById(u.getId(), u);
-    }
+    private static final int MAX_SEARCH_RESULTS = 500;
+    private static final String SEARCH_CURSOR = "rank";
+    private static final int MAX_TIMESERIES_YEARS = 5;
+    private static final Sort EXPORT_ORDER = Sort.by("id");
+    private static final List<String> CLIENT_EXPORT_COLUMNS = List.of("id", "client_name", "company_name", "email", "contact_no",
+            "address", "country", "status", "deal_value", "entry_date", "closed_date", "next_follow_up", "assigned_to",
+            "assigned_to_email", "comments", "team_id", "created_at", "updated_at");
+    private static final List<String> FOLLOW_UP_EXPORT_COLUMNS = List.of("id", "client", "client_name", "date", "notes", "done",
+            "created_by", "created_by_email", "created_at", "updated_at");
+    private static final List<String> ACTIVITY_EXPORT_COLUMNS = List.of("id", "user", "user_email", "client", "client_name",
+            "activity_type", "date", "notes", "value", "created_at", "updated_at");
 
     // ---------- Clients ----------
     @Transactional(readOnly = true)
-    public List<ClientDto> listClients(User current, String status, String search) {
-        List<Client> list = current.isAdminOrHr()
-                ? clientRepository.findAllByOrderByCreatedAtDesc()
-                : clientRepository.findByAssignedToOrderByCreatedAtDesc(current);
-        if (status != null) list = list.stream().filter(c -> status.equals(c.getStatus())).collect(Collectors.toList());
+    public CursorPage<ClientDto> listClients(User current, String status, String search, Long assignedTo,
+                                             LocalDate entryFrom, LocalDate entryTo, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit);
+        Long visibleAssignee = AccessPolicy.ownerScope(current, assignedTo);
+        Specification<Client> spec = clientFilter(visibleAssignee, status, entryFrom, entryTo);
         if (search != null && !search.isBlank()) {
-            String s = search.toLowerCase();
-            list = list.stream().filter(c ->
-                    (c.getClientName() != null && c.getClientName().toLowerCase().contains(s)) ||
-                            (c.getCompanyName() != null && c.getCompanyName().toLowerCase().contains(s)) ||
-                            (c.getEmail() != null && c.getEmail().toLowerCase().contains(s))).collect(Collectors.toList());
+            return searchClients(spec, search.trim(), visibleAssignee, cursor, pageSize);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            spec = spec.and(ClientSpecifications.after(parseTimestamp(key[0]), parseId(key[1])));
+        }
+        List<Client> rows = clientRepository.findPage(spec, pageSize + 1);
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Client last = rows.get(pageSize - 1);
+            next = KeysetCursor.encode(last.getCreatedAt(), last.getId());
         }
-        return list.stream().map(this::toClientDto).collect(Collectors.toList());
+        return CursorPage.<ClientDto>builder()
+                .results(toClientDtos(rows))
+                .nextCursor(next)
+                .build();
     }
 
-    public ClientDto getClient(Long id, User current) {
-        Client c = clientRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found."));
-        if (!current.isAdminOrHr() && (c.getAssignedTo() == null || !c.getAssignedTo().getId().equals(current.getId()))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this client.");
+    private static Specification<Client> clientFilter(Long assignedTo, String status, LocalDate entryFrom, LocalDate entryTo) {
+        Specification<Client> spec = Specification.where(null);
+        if (assignedTo != null) spec = spec.and(ClientSpecifications.assignedTo(assignedTo));
+        if (status != null) spec = spec.and(ClientSpecifications.hasStatus(status));
+        if (entryFrom != null) spec = spec.and(ClientSpecifications.enteredFrom(entryFrom));
+        if (entryTo != null) spec = spec.and(ClientSpecifications.enteredTo(entryTo));
+        return spec;
+    }
+
+    /** Streams every visible client matching the filters, oldest first, without materializing the result. */
+    @Transactional(readOnly = true)
+    public void exportClients(User current, String status, Long assignedTo, LocalDate entryFrom, LocalDate entryTo,
+                              DataFormat format, OutputStream out) throws IOException {
+        Specification<Client> spec = clientFilter(AccessPolicy.ownerScope(current, assignedTo), status, entryFrom, entryTo);
+        Map<Long, String> emails = userEmails();
+        try (RowWriter writer = new RowWriter(format, CLIENT_EXPORT_COLUMNS, out);
+             Stream<Client> rows = entityStreams.stream(Client.class, spec, EXPORT_ORDER)) {
+            for (Client c : (Iterable<Client>) rows::iterator) {
+                Long assignee = c.getAssignedTo() != null ? c.getAssignedTo().getId() : null;
+                writer.row(c.getId(), c.getClientName(), c.getCompanyName(), c.getEmail(), c.getContactNo(), c.getAddress(),
+                        c.getCountry(), c.getStatus(), c.getDealValue(), c.getEntryDate(), c.getClosedDate(), c.getNextFollowUp(),
+                        assignee, emails.get(assignee), c.getComments(), c.getTeamId(), c.getCreatedAt(), c.getUpdatedAt());
+                entityStreams.detach(c);
+            }
+        }
+    }
+
+    /** Staff emails by id for export columns; the user table is small and read once per export. */
+    private Map<Long, String> userEmails() {
+        Map<Long, String> emails = new HashMap<>();
+        for (User u : userRepository.findAll()) emails.put(u.getId(), u.getEmail());
+        return emails;
+    }
+
+    /**
+     * Candidates and ranking come from the in-memory index; the remaining filters are applied in SQL
+     * to the ranked ids a chunk at a time, so a filter never hides matches ranked below the cap. Pages
+     * are offsets into the first {@value #MAX_SEARCH_RESULTS} matches.
+     */
+    private CursorPage<ClientDto> searchClients(Specification<Client> spec, String search, Long visibleAssignee,
+                                                String cursor, int pageSize) {
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            if (!SEARCH_CURSOR.equals(key[0])) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+            long rank = parseId(key[1]);
+            if (rank < 0 || rank >= MAX_SEARCH_RESULTS) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+            offset = (int) rank;
+        }
+        List<Long> ranked = clientSearchIndex.search(search, visibleAssignee, Integer.MAX_VALUE);
+        int wanted = Math.min(offset + pageSize + 1, MAX_SEARCH_RESULTS);
+        List<Client> matches = new ArrayList<>();
+        for (int from = 0; from < ranked.size() && matches.size() < wanted; from += MAX_SEARCH_RESULTS) {
+            List<Long> chunk = ranked.subList(from, Math.min(from + MAX_SEARCH_RESULTS, ranked.size()));
+            Map<Long, Client> byId = clientRepository.findAll(spec.and(ClientSpecifications.idIn(chunk))).stream()
+                    .collect(Collectors.toMap(Client::getId, c -> c));
+            for (Long id : chunk) {
+                Client c = byId.get(id);
+                if (c != null && matches.size() < wanted) matches.add(c);
+            }
+        }
+        List<Client> rows = matches.subList(Math.min(offset, matches.size()), Math.min(offset + pageSize, matches.size()));
+        String next = offset + pageSize < matches.size() ? KeysetCursor.encode(SEARCH_CURSOR, offset + pageSize) : null;
+        return CursorPage.<ClientDto>builder()
+                .results(toClientDtos(rows))
+                .nextCursor(next)
+                .build();
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
         }
+    }
+
+    @Transactional(readOnly = true)
+    public ClientDto getClient(Long id, User current) {
+        Client c = AccessPolicy.findVisible(clientRepository, id, AccessPolicy.clients(current),
+                "Client not found.", "Not allowed to view this client.");
         return toClientDto(c);
     }
 
@@ -76,22 +197,23 @@ public class SalesService {
         if (dto.getServiceIds() != null) {
             final Client clientRef = saved;
             for (Long sid : dto.getServiceIds()) {
-                serviceRepository.findById(sid).ifPresent(svc -> {
-                    ClientService cs = ClientService.builder().client(clientRef).service(svc).build();
+                serviceCatalog.findById(sid).ifPresent(svc -> {
+                    ClientService cs = ClientService.builder().client(clientRef).service(serviceRepository.getReferenceById(svc.getId())).build();
                     clientRef.getServices().add(cs);
                 });
             }
             saved = clientRepository.save(saved);
         }
+        reindex(saved);
+        recordWrite(null, SalesFunnelCounters.Facts.of(saved));
         return toClientDto(saved);
     }
 
     @Transactional
     public ClientDto updateClient(Long id, ClientDto dto, User current) {
-        Client c = clientRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found."));
-        if (!current.isAdminOrHr() && (c.getAssignedTo() == null || !c.getAssignedTo().getId().equals(current.getId()))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to update this client.");
-        }
+        Client c = AccessPolicy.lockVisible(clientRepository, clientRepository::lockById, id, AccessPolicy.clients(current),
+                "Client not found.", "Not allowed to update this client.");
+        SalesFunnelCounters.Facts before = SalesFunnelCounters.Facts.of(c);
         if (dto.getClientName() != null) c.setClientName(dto.getClientName());
         if (dto.getCompanyName() != null) c.setCompanyName(dto.getCompanyName());
         if (dto.getEmail() != null) c.setEmail(dto.getEmail());
@@ -103,26 +225,31 @@ public class SalesService {
         if (dto.getEntryDate() != null) c.setEntryDate(dto.getEntryDate());
         if (dto.getClosedDate() != null) c.setClosedDate(dto.getClosedDate());
         if (dto.getNextFollowUp() != null) c.setNextFollowUp(dto.getNextFollowUp());
-        if (dto.getAssignedTo() != null && current.isAdminOrHr()) c.setAssignedTo(userRepository.findById(dto.getAssignedTo()).orElse(c.getAssignedTo()));
+        if (dto.getAssignedTo() != null && AccessPolicy.seesAll(current)) c.setAssignedTo(userRepository.findById(dto.getAssignedTo()).orElse(c.getAssignedTo()));
         if (dto.getComments() != null) c.setComments(dto.getComments());
         if (dto.getTeamId() != null) c.setTeamId(dto.getTeamId());
         if (dto.getServiceIds() != null) {
             c.getServices().clear();
             final Client clientRef = c;
             for (Long sid : dto.getServiceIds()) {
-                serviceRepository.findById(sid).ifPresent(svc -> clientRef.getServices().add(ClientService.builder().client(clientRef).service(svc).build()));
+                serviceCatalog.findById(sid).ifPresent(svc -> clientRef.getServices().add(
+                        ClientService.builder().client(clientRef).service(serviceRepository.getReferenceById(svc.getId())).build()));
             }
         }
         c = clientRepository.save(c);
+        reindex(c);
+        recordWrite(before, SalesFunnelCounters.Facts.of(c));
         return toClientDto(c);
     }
 
     @Transactional
     public ClientDto updateClientStatus(Long id, String status, BigDecimal dealValue, User current) {
-        Client c = clientRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found."));
+        Client c = AccessPolicy.lockVisible(clientRepository, clientRepository::lockById, id, AccessPolicy.clients(current),
+                "Client not found.", "Not allowed to update this client.");
         if (!List.of("Prospect", "Negotiation", "Closed", "Lost").contains(status)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status.");
         }
+        SalesFunnelCounters.Facts before = SalesFunnelCounters.Facts.of(c);
         c.setStatus(status);
         if ("Closed".equals(status)) {
             c.setClosedDate(LocalDate.now());
@@ -130,41 +257,79 @@ public class SalesService {
             else if (c.getDealValue() == null || c.getDealValue().compareTo(BigDecimal.ZERO) == 0) c.setDealValue(new BigDecimal("5000"));
         }
         c = clientRepository.save(c);
+        recordWrite(before, SalesFunnelCounters.Facts.of(c));
         return toClientDto(c);
     }
 
-    public Map<String, Object> analytics(User current) {
-        List<Client> list = current.isAdminOrHr() ? clientRepository.findAllByOrderByCreatedAtDesc() : clientRepository.findByAssignedToOrderByCreatedAtDesc(current);
-        BigDecimal totalRevenue = list.stream().filter(c -> "Closed".equals(c.getStatus())).map(Client::getDealValue).filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
-        long totalLeads = list.size();
-        long prospect = list.stream().filter(c -> "Prospect".equals(c.getStatus())).count();
-        long negotiation = list.stream().filter(c -> "Negotiation".equals(c.getStatus())).count();
-        long closed = list.stream().filter(c -> "Closed".equals(c.getStatus())).count();
-        long lost = list.stream().filter(c -> "Lost".equals(c.getStatus())).count();
-        double conversionRate = totalLeads > 0 ? (closed * 100.0 / totalLeads) : 0;
-        double avgDays = list.stream().filter(c -> "Closed".equals(c.getStatus()) && c.getClosedDate() != null && c.getEntryDate() != null)
-                .mapToLong(c -> java.time.temporal.ChronoUnit.DAYS.between(c.getEntryDate(), c.getClosedDate())).average().orElse(0);
-        Map<String, Object> result = new HashMap<>();
-        result.put("total_revenue", totalRevenue != null ? totalRevenue.doubleValue() : 0);
-        result.put("conversion_funnel", Map.of("total_leads", totalLeads, "prospect", prospect, "negotiation", negotiation, "closed", closed, "lost", lost));
-        result.put("conversion_rate", Math.round(conversionRate * 100) / 100.0);
-        result.put("average_time_to_close", Math.round(avgDays));
+    public Map<String, Object> analytics(User current, Long assignedTo) {
+        return salesFunnelCounters.analytics(AccessPolicy.ownerScope(current, assignedTo));
+    }
+
+    public Map<String, Object> timeseries(User current, String basis, String granularity, String groupBy, LocalDate from, LocalDate to) {
+        ClientTimeseriesQueries.DateBasis dateBasis = parseOption(ClientTimeseriesQueries.DateBasis.class, basis, "basis");
+        SalesTimeseries.Granularity bucket = parseOption(SalesTimeseries.Granularity.class, granularity, "granularity");
+        ClientTimeseriesQueries.Dimension dimension = parseOption(ClientTimeseriesQueries.Dimension.class, groupBy, "group_by");
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(12);
+        if (start.isAfter(end) || start.isBefore(end.minusYears(MAX_TIMESERIES_YEARS))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range must be ordered and span at most " + MAX_TIMESERIES_YEARS + " years.");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("basis", dateBasis.name().toLowerCase());
+        result.put("granularity", bucket.name().toLowerCase());
+        result.put("group_by", dimension.name().toLowerCase());
+        result.put("series", salesTimeseries.series(dateBasis, dimension, bucket, start, end, AccessPolicy.ownerScope(current, null)));
         return result;
     }
 
+    private static <E extends Enum<E>> E parseOption(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + name + ".");
+        }
+    }
+
     @Transactional
     public void deleteClient(Long id, User current) {
-        Client c = clientRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Client not found."));
-        if (!current.isAdminOrHr() && (c.getAssignedTo() == null || !c.getAssignedTo().getId().equals(current.getId()))) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to delete this client.");
-        }
+        Client c = AccessPolicy.lockVisible(clientRepository, clientRepository::lockById, id, AccessPolicy.clients(current),
+                "Client not found.", "Not allowed to delete this client.");
+        SalesFunnelCounters.Facts before = SalesFunnelCounters.Facts.of(c);
         clientRepository.delete(c);
+        recordWrite(before, null);
+        AfterCommit.run(() -> clientSearchIndex.remove(id));
+    }
+
+    private void recordWrite(SalesFunnelCounters.Facts before, SalesFunnelCounters.Facts after) {
+        salesFunnelCounters.record(before, after);
+        AfterCommit.run(() -> {
+            if (before != null) salesTimeseries.invalidate(before.entryDate(), before.closedDate());
+            if (after != null) salesTimeseries.invalidate(after.entryDate(), after.closedDate());
+        });
+    }
+
+    private void reindex(Client c) {
+        Long id = c.getId();
+        Long assignedToId = c.getAssignedTo() != null ? c.getAssignedTo().getId() : null;
+        String clientName = c.getClientName();
+        String companyName = c.getCompanyName();
+        String email = c.getEmail();
+        AfterCommit.run(() -> clientSearchIndex.put(id, assignedToId, clientName, companyName, email));
     }
 
     private ClientDto toClientDto(Client c) {
+        return toClientDto(c, userService.resolverFor(Collections.singletonList(c.getAssignedTo())));
+    }
+
+    private List<ClientDto> toClientDtos(List<Client> clients) {
+        UserDtoResolver users = userService.resolverFor(clients.stream().map(Client::getAssignedTo).collect(Collectors.toList()));
+        return clients.stream().map(c -> toClientDto(c, users)).collect(Collectors.toList());
+    }
+
+    private ClientDto toClientDto(Client c, UserDtoResolver users) {
         List<ClientServiceDto> svcList = c.getServices().stream().map(cs -> ClientServiceDto.builder()
                 .id(cs.getId())
-                .service(ServiceDto.builder().id(cs.getService().getId()).name(cs.getService().getName()).description(cs.getService().getDescription()).build())
+                .service(toServiceDto(cs))
                 .createdAt(cs.getCreatedAt())
                 .build()).collect(Collectors.toList());
         List<Long> serviceIds = c.getServices().stream().map(cs -> cs.getService().getId()).collect(Collectors.toList());
@@ -182,7 +347,7 @@ public class SalesService {
                 .closedDate(c.getClosedDate())
                 .nextFollowUp(c.getNextFollowUp())
                 .assignedTo(c.getAssignedTo() != null ? c.getAssignedTo().getId() : null)
-                .assignedToDetail(toUserDto(c.getAssignedTo()))
+                .assignedToDetail(users.get(c.getAssignedTo()))
                 .comments(c.getComments())
                 .teamId(c.getTeamId())
                 .services(svcList)
@@ -192,22 +357,69 @@ public class SalesService {
                 .build();
     }
 
+    /** Reads the service's fields from the catalog so the lazy reference is never initialized. */
+    private ServiceDto toServiceDto(ClientService cs) {
+        return serviceCatalog.findById(cs.getService().getId()).or(() -> Optional.of(cs.getService()))
+                .map(s -> ServiceDto.builder().id(s.getId()).name(s.getName()).description(s.getDescription()).build())
+                .get();
+    }
+
     // ---------- Services (read-only) ----------
-    @Transactional(readOnly = true)
     public List<ServiceDto> listServices() {
-        return serviceRepository.findAll().stream().map(s -> ServiceDto.builder().id(s.getId()).name(s.getName()).description(s.getDescription()).build()).collect(Collectors.toList());
+        return serviceCatalog.all();
+    }
+
+    public String servicesEtag() {
+        return serviceCatalog.etag();
     }
 
     // ---------- Follow-ups ----------
     @Transactional(readOnly = true)
-    public List<FollowUpDto> listFollowUps(User current, Long clientId, Boolean done) {
-        List<FollowUp> list = followUpRepository.findAll().stream()
-                .filter(f -> current.isAdminOrHr() || (f.getCreatedBy() != null && f.getCreatedBy().getId().equals(current.getId())) || (f.getClient().getAssignedTo() != null && f.getClient().getAssignedTo().getId().equals(current.getId())))
-                .collect(Collectors.toList());
-        if (clientId != null) list = list.stream().filter(f -> f.getClient().getId().equals(clientId)).collect(Collectors.toList());
-        if (done != null) list = list.stream().filter(f -> done.equals(f.getDone())).collect(Collectors.toList());
-        list.sort(Comparator.comparing(FollowUp::getDate).thenComparing(FollowUp::getCreatedAt, Comparator.reverseOrder()));
-        return list.stream().map(this::toFollowUpDto).collect(Collectors.toList());
+    public CursorPage<FollowUpDto> listFollowUps(User current, Long clientId, Boolean done, LocalDate from, LocalDate to,
+                                                 String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit);
+        Specification<FollowUp> spec = followUpFilter(current, clientId, done, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 3);
+            spec = spec.and(FollowUpSpecifications.after(parseDate(key[0]), parseTimestamp(key[1]), parseId(key[2])));
+        }
+        List<FollowUp> rows = followUpRepository.findPage(spec, pageSize + 1);
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            FollowUp last = rows.get(pageSize - 1);
+            next = KeysetCursor.encode(last.getDate(), last.getCreatedAt(), last.getId());
+        }
+        UserDtoResolver users = userService.resolverFor(rows.stream().map(FollowUp::getCreatedBy).collect(Collectors.toList()));
+        return CursorPage.<FollowUpDto>builder()
+                .results(rows.stream().map(f -> toFollowUpDto(f, users)).collect(Collectors.toList()))
+                .nextCursor(next)
+                .build();
+    }
+
+    private static Specification<FollowUp> followUpFilter(User current, Long clientId, Boolean done, LocalDate from, LocalDate to) {
+        Specification<FollowUp> spec = Specification.where(AccessPolicy.followUps(current));
+        if (clientId != null) spec = spec.and(FollowUpSpecifications.forClient(clientId));
+        if (done != null) spec = spec.and(FollowUpSpecifications.isDone(done));
+        if (from != null) spec = spec.and(FollowUpSpecifications.dateFrom(from));
+        if (to != null) spec = spec.and(FollowUpSpecifications.dateTo(to));
+        return spec;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportFollowUps(User current, Long clientId, Boolean done, LocalDate from, LocalDate to,
+                                DataFormat format, OutputStream out) throws IOException {
+        Specification<FollowUp> spec = followUpFilter(current, clientId, done, from, to).and(FollowUpSpecifications.fetchClient());
+        Map<Long, String> emails = userEmails();
+        try (RowWriter writer = new RowWriter(format, FOLLOW_UP_EXPORT_COLUMNS, out);
+             Stream<FollowUp> rows = entityStreams.stream(FollowUp.class, spec, EXPORT_ORDER)) {
+            for (FollowUp f : (Iterable<FollowUp>) rows::iterator) {
+                Long creator = f.getCreatedBy() != null ? f.getCreatedBy().getId() : null;
+                writer.row(f.getId(), f.getClient().getId(), f.getClient().getClientName(), f.getDate(), f.getNotes(), f.getDone(),
+                        creator, emails.get(creator), f.getCreatedAt(), f.getUpdatedAt());
+                entityStreams.detach(f, f.getClient());
+            }
+        }
     }
 
     @Transactional
@@ -220,13 +432,18 @@ public class SalesService {
 
     @Transactional
     public FollowUpDto toggleFollowUpDone(Long id, User current) {
-        FollowUp f = followUpRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Follow-up not found."));
+        FollowUp f = AccessPolicy.findVisible(followUpRepository, id, AccessPolicy.followUps(current),
+                "Follow-up not found.", "Not allowed to update this follow-up.");
         f.setDone(!Boolean.TRUE.equals(f.getDone()));
         f = followUpRepository.save(f);
         return toFollowUpDto(f);
     }
 
     private FollowUpDto toFollowUpDto(FollowUp f) {
+        return toFollowUpDto(f, userService.resolverFor(Collections.singletonList(f.getCreatedBy())));
+    }
+
+    private FollowUpDto toFollowUpDto(FollowUp f, UserDtoResolver users) {
         return FollowUpDto.builder()
                 .id(f.getId())
                 .client(f.getClient().getId())
@@ -235,7 +452,7 @@ public class SalesService {
                 .notes(f.getNotes())
                 .done(f.getDone())
                 .createdBy(f.getCreatedBy() != null ? f.getCreatedBy().getId() : null)
-                .createdByDetail(toUserDto(f.getCreatedBy()))
+                .createdByDetail(users.get(f.getCreatedBy()))
                 .createdAt(f.getCreatedAt())
                 .updatedAt(f.getUpdatedAt())
                 .build();
@@ -243,13 +460,55 @@ public class SalesService {
 
     // ---------- Sales activities ----------
     @Transactional(readOnly = true)
-    public List<SalesActivityDto> listSalesActivities(User current, Long clientId, String activityType) {
-        List<SalesActivity> list = current.isAdminOrHr() ? salesActivityRepository.findAll().stream().sorted(Comparator.comparing(SalesActivity::getDate).reversed().thenComparing(SalesActivity::getCreatedAt).reversed()).collect(Collectors.toList())
-                : salesActivityRepository.findByUserIdOrderByDateDescCreatedAtDesc(current.getId());
-        if (!current.isAdminOrHr() && list.isEmpty()) return List.of();
-        if (clientId != null) list = list.stream().filter(a -> a.getClient() != null && a.getClient().getId().equals(clientId)).collect(Collectors.toList());
-        if (activityType != null) list = list.stream().filter(a -> activityType.equals(a.getActivityType())).collect(Collectors.toList());
-        return list.stream().map(this::toSalesActivityDto).collect(Collectors.toList());
+    public CursorPage<SalesActivityDto> listSalesActivities(User current, Long userId, Long clientId, String activityType,
+                                                            LocalDate from, LocalDate to, String cursor, Integer limit) {
+        int pageSize = KeysetCursor.pageSize(limit);
+        Specification<SalesActivity> spec = activityFilter(current, userId, clientId, activityType, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 3);
+            spec = spec.and(SalesActivitySpecifications.after(parseDate(key[0]), parseTimestamp(key[1]), parseId(key[2])));
+        }
+        List<SalesActivity> rows = salesActivityRepository.findPage(spec, pageSize + 1);
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            SalesActivity last = rows.get(pageSize - 1);
+            next = KeysetCursor.encode(last.getDate(), last.getCreatedAt(), last.getId());
+        }
+        UserDtoResolver users = userService.resolverFor(rows.stream().map(SalesActivity::getUser).collect(Collectors.toList()));
+        return CursorPage.<SalesActivityDto>builder()
+                .results(rows.stream().map(a -> toSalesActivityDto(a, users)).collect(Collectors.toList()))
+                .nextCursor(next)
+                .build();
+    }
+
+    private static Specification<SalesActivity> activityFilter(User current, Long userId, Long clientId, String activityType,
+                                                               LocalDate from, LocalDate to) {
+        Long visibleUser = AccessPolicy.ownerScope(current, userId);
+        Specification<SalesActivity> spec = Specification.where(null);
+        if (visibleUser != null) spec = spec.and(SalesActivitySpecifications.byUser(visibleUser));
+        if (clientId != null) spec = spec.and(SalesActivitySpecifications.forClient(clientId));
+        if (activityType != null) spec = spec.and(SalesActivitySpecifications.ofType(activityType));
+        if (from != null) spec = spec.and(SalesActivitySpecifications.dateFrom(from));
+        if (to != null) spec = spec.and(SalesActivitySpecifications.dateTo(to));
+        return spec;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportSalesActivities(User current, Long userId, Long clientId, String activityType, LocalDate from, LocalDate to,
+                                      DataFormat format, OutputStream out) throws IOException {
+        Specification<SalesActivity> spec = activityFilter(current, userId, clientId, activityType, from, to)
+                .and(SalesActivitySpecifications.fetchUserAndClient());
+        try (RowWriter writer = new RowWriter(format, ACTIVITY_EXPORT_COLUMNS, out);
+             Stream<SalesActivity> rows = entityStreams.stream(SalesActivity.class, spec, EXPORT_ORDER)) {
+            for (SalesActivity a : (Iterable<SalesActivity>) rows::iterator) {
+                Client client = a.getClient();
+                writer.row(a.getId(), a.getUser().getId(), a.getUser().getEmail(), client != null ? client.getId() : null,
+                        client != null ? client.getClientName() : null, a.getActivityType(), a.getDate(), a.getNotes(),
+                        a.getAmount(), a.getCreatedAt(), a.getUpdatedAt());
+                entityStreams.detach(a, client);
+            }
+        }
     }
 
     @Transactional
@@ -268,10 +527,14 @@ public class SalesService {
     }
 
     private SalesActivityDto toSalesActivityDto(SalesActivity a) {
+        return toSalesActivityDto(a, userService.resolverFor(Collections.singletonList(a.getUser())));
+    }
+
+    private SalesActivityDto toSalesActivityDto(SalesActivity a, UserDtoResolver users) {
         return SalesActivityDto.builder()
                 .id(a.getId())
                 .user(a.getUser().getId())
-                .userDetail(toUserDto(a.getUser()))
+                .userDetail(users.get(a.getUser()))
                 .client(a.getClient() != null ? a.getClient().getId() : null)
                 .clientName(a.getClient() != null ? a.getClient().getClientName() : null)
                 .activityType(a.getActivityType())
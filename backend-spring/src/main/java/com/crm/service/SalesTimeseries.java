@@ -0,0 +1,139 @@
+package com.crm.service;
+
+import com.crm.repository.ClientRepository;
+import com.crm.repository.ClientTimeseriesQueries.DailyDeals;
+import com.crm.repository.ClientTimeseriesQueries.DateBasis;
+import com.crm.repository.ClientTimeseriesQueries.Dimension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revenue, deal count and average deal value per week or month, optionally split by a dimension.
+ * Days are aggregated in SQL and folded into buckets here. Buckets that ended before the current
+ * one are cached; client writes evict the buckets containing the dates they touch, after commit.
+ * <p>
+ * The cache is per instance: evictions only reach this JVM, so with several instances a write on one
+ * leaves the others serving their cached buckets until they expire ({@code sales.timeseries.cache-ttl-ms}).
+ * A read stores its buckets only if no eviction ran while it was querying, so a query that raced a write
+ * cannot cache what the write changed.
+ */
+@Component
+public class SalesTimeseries {
+
+    private static final int MAX_CACHED_BUCKETS = 10_000;
+
+    private final ClientRepository clientRepository;
+    private final long ttlNanos;
+
+    private final Map<BucketKey, Cached> closedBuckets = new ConcurrentHashMap<>();
+    private long generation; // guarded by closedBuckets; bumped by every eviction
+
+    public SalesTimeseries(ClientRepository clientRepository,
+                           @Value("${sales.timeseries.cache-ttl-ms:300000}") long ttlMs) {
+        this.clientRepository = clientRepository;
+        this.ttlNanos = ttlMs * 1_000_000;
+    }
+
+    public enum Granularity {
+        WEEK, MONTH;
+
+        LocalDate start(LocalDate day) {
+            return this == WEEK ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day.withDayOfMonth(1);
+        }
+
+        LocalDate next(LocalDate start) {
+            return this == WEEK ? start.plusWeeks(1) : start.plusMonths(1);
+        }
+    }
+
+    private record BucketKey(DateBasis basis, Dimension dimension, Granularity granularity, Long assignedToId, LocalDate start) {
+    }
+
+    private record Point(String group, BigDecimal revenue, long deals) {
+    }
+
+    private record Cached(List<Point> points, long expiresAt) {
+        boolean live(long now) {
+            return expiresAt - now > 0;
+        }
+    }
+
+    public List<Map<String, Object>> series(DateBasis basis, Dimension dimension, Granularity granularity,
+                                            LocalDate from, LocalDate to, Long assignedToId) {
+        LocalDate current = granularity.start(LocalDate.now());
+        long now = System.nanoTime();
+        SortedMap<LocalDate, List<Point>> buckets = new TreeMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate start = granularity.start(from); !start.isAfter(to); start = granularity.next(start)) {
+            Cached cached = start.isBefore(current)
+                    ? closedBuckets.get(new BucketKey(basis, dimension, granularity, assignedToId, start)) : null;
+            if (cached != null && cached.live(now)) buckets.put(start, cached.points());
+            else missing.add(start);
+        }
+        if (!missing.isEmpty()) {
+            long seen;
+            synchronized (closedBuckets) {
+                seen = generation;
+            }
+            LocalDate queryFrom = missing.get(0);
+            LocalDate queryTo = granularity.next(missing.get(missing.size() - 1)).minusDays(1);
+            Map<LocalDate, Map<String, Point>> folded = new HashMap<>();
+            for (DailyDeals row : clientRepository.sumDealsByDay(basis, dimension, queryFrom, queryTo, assignedToId)) {
+                String group = row.dimension() != null ? String.valueOf(row.dimension()) : null;
+                BigDecimal revenue = row.revenue() != null ? row.revenue() : BigDecimal.ZERO;
+                folded.computeIfAbsent(granularity.start(row.day()), d -> new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder())))
+                        .merge(group, new Point(group, revenue, row.deals()),
+                                (a, b) -> new Point(group, a.revenue().add(b.revenue()), a.deals() + b.deals()));
+            }
+            for (LocalDate start : missing) {
+                buckets.put(start, List.copyOf(folded.getOrDefault(start, Map.of()).values()));
+            }
+            synchronized (closedBuckets) {
+                if (generation == seen && ttlNanos > 0) {
+                    if (closedBuckets.size() > MAX_CACHED_BUCKETS) closedBuckets.values().removeIf(c -> !c.live(System.nanoTime()));
+                    if (closedBuckets.size() > MAX_CACHED_BUCKETS) closedBuckets.clear();
+                    for (LocalDate start : missing) {
+                        if (start.isBefore(current)) {
+                            closedBuckets.put(new BucketKey(basis, dimension, granularity, assignedToId, start),
+                                    new Cached(buckets.get(start), now + ttlNanos));
+                        }
+                    }
+                }
+            }
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        buckets.forEach((start, points) -> {
+            for (Point p : points) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("period_start", start);
+                if (dimension != Dimension.NONE) row.put("group", p.group());
+                row.put("revenue", p.revenue().doubleValue());
+                row.put("deals", p.deals());
+                row.put("average_deal_value", p.deals() > 0
+                        ? p.revenue().divide(BigDecimal.valueOf(p.deals()), 2, RoundingMode.HALF_UP).doubleValue() : 0);
+                result.add(row);
+            }
+        });
+        return result;
+    }
+
+    /** Evicts cached buckets on this instance that contain any of the given days. */
+    public void invalidate(LocalDate... days) {
+        synchronized (closedBuckets) {
+            generation++;
+            if (closedBuckets.isEmpty()) return;
+            for (LocalDate day : days) {
+                if (day == null) continue;
+                closedBuckets.keySet().removeIf(k -> !k.start().isAfter(day) && k.granularity().next(k.start()).isAfter(day));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.crm.service;
+
+import com.crm.repository.SchedulerLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database leases for scheduled jobs. Every instance fires the schedule; the one that claims the lease runs it.
+ * The holder keeps the lease by claiming again; others get it once it has expired.
+ */
+@Component
+public class SchedulerLeases {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public SchedulerLeases(SchedulerLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** True if this instance holds the named lease for the next {@code duration}. */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        Integer claimed = transactionTemplate.execute(status -> leaseRepository.claim(name, owner, now, until));
+        if (claimed != null && claimed > 0) return true;
+        if (leaseRepository.existsById(name)) return false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.create(name, owner, until));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.crm.service;
+
+import com.crm.domain.Service;
+import com.crm.dto.ServiceDto;
+import com.crm.repository.ServiceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Immutable in-memory copy of the services catalog. Reads never touch the database; {@link #refresh()}
+ * swaps in a new snapshot and runs at startup, after seeding and (at most once a second) when a lookup misses.
+ * Cached entities are detached: use them for their fields only, and {@link ServiceRepository#getReferenceById}
+ * when linking a client to a service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceCatalog {
+
+    private static final long MISS_REFRESH_INTERVAL_MS = 1000;
+
+    private final ServiceRepository serviceRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long loadedAt;
+
+    private record Snapshot(Map<Long, Service> byId, Map<String, Service> byName, List<ServiceDto> dtos, String etag) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of(), "\"0\"");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        List<Service> services = serviceRepository.findAll(Sort.by("id"));
+        Map<Long, Service> byId = new LinkedHashMap<>();
+        Map<String, Service> byName = new HashMap<>();
+        List<ServiceDto> dtos = new ArrayList<>(services.size());
+        for (Service s : services) {
+            byId.put(s.getId(), s);
+            byName.put(s.getName().toLowerCase(Locale.ROOT), s);
+            dtos.add(ServiceDto.builder().id(s.getId()).name(s.getName()).description(s.getDescription()).build());
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(byId), Map.copyOf(byName), List.copyOf(dtos), etag(dtos));
+        loadedAt = System.currentTimeMillis();
+        log.debug("Service catalog loaded: {} services.", byId.size());
+    }
+
+    /** The service with this id, reloading the catalog if it is unknown. */
+    public Optional<Service> findById(Long id) {
+        Service s = snapshot.byId().get(id);
+        if (s == null && id != null && refreshAfterMiss()) {
+            s = snapshot.byId().get(id);
+        }
+        return Optional.ofNullable(s);
+    }
+
+    /** Case-insensitive lookup by name, reloading the catalog if it is unknown. */
+    public Optional<Service> findByName(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Service s = snapshot.byName().get(key);
+        if (s == null && refreshAfterMiss()) {
+            s = snapshot.byName().get(key);
+        }
+        return Optional.ofNullable(s);
+    }
+
+    private boolean refreshAfterMiss() {
+        if (System.currentTimeMillis() - loadedAt < MISS_REFRESH_INTERVAL_MS) return false;
+        synchronized (this) {
+            // Concurrent misses queue here; only the first reloads, the rest read its snapshot.
+            if (System.currentTimeMillis() - loadedAt >= MISS_REFRESH_INTERVAL_MS) refresh();
+        }
+        return true;
+    }
+
+    /** SHA-256 of the JSON that {@link #all()} is served as. */
+    private String etag(List<ServiceDto> dtos) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(dtos));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot compute the service catalog ETag", e);
+        }
+    }
+
+    public List<ServiceDto> all() {
+        return snapshot.dtos();
+    }
+
+    /** Strong ETag of {@link #all()}; changes whenever the catalog content does. */
+    public String etag() {
+        return snapshot.etag();
+    }
+}
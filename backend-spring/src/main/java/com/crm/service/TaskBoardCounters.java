@@ -0,0 +1,188 @@
+package com.crm.service;
+
+import com.crm.domain.Task;
+import com.crm.repository.TaskBoardRow;
+import com.crm.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task counts by (status, priority, overdue) per assignee and overall, so /tasks/tasks/summary never scans the tasks table.
+ * Task writes apply deltas after commit; the counts are rebuilt with one GROUP BY at startup and after an overdue
+ * sweep, and periodically checked against the table (which also catches sweeps run by other instances).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBoardCounters {
+
+    private static final List<String> STATUSES = List.of("pending", "in_progress", "completed");
+    private static final List<String> PRIORITIES = List.of("low", "medium", "high", "urgent");
+
+    private final TaskRepository taskRepository;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private Map<Long, Map<Cell, Long>> byAssignee = new HashMap<>(); // guarded by this
+    private Map<Cell, Long> global = new HashMap<>(); // guarded by this
+    private long applied; // guarded by this
+
+    /** The fields of a task that the counts depend on, captured before and after a write. */
+    public record Facts(Long assignedToId, String status, String priority, boolean overdue) {
+        public static Facts of(Task t) {
+            return new Facts(t.getAssignedTo() != null ? t.getAssignedTo().getId() : null, t.getStatus(), t.getPriority(),
+                    t.getIsOverdue());
+        }
+    }
+
+    private record Cell(String status, String priority, boolean overdue) {
+    }
+
+    /** A task write: {@code before} is null for creates and {@code after} is null for deletes. */
+    public record Change(Facts before, Facts after) {
+    }
+
+    /** Records a task write; {@code before} is null for creates and {@code after} is null for deletes. */
+    public void record(Facts before, Facts after) {
+        if (before != null && before.equals(after)) return;
+        afterCommit(() -> apply(List.of(new Change(before, after))));
+    }
+
+    /** Records many task writes with a single after-commit callback. */
+    public void recordAll(List<Change> changes) {
+        if (changes.isEmpty()) return;
+        afterCommit(() -> apply(changes));
+    }
+
+    private void afterCommit(Runnable apply) {
+        inFlight.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                apply.run();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) apply.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /** Counts for one assignee, or overall plus a breakdown per assignee when {@code assignedToId} is null. */
+    public synchronized Map<String, Object> summary(Long assignedToId) {
+        if (assignedToId != null) return counts(byAssignee.getOrDefault(assignedToId, Map.of()));
+        Map<String, Object> result = counts(global);
+        List<Map<String, Object>> assignees = new ArrayList<>(byAssignee.size());
+        for (Map.Entry<Long, Map<Cell, Long>> e : new TreeMap<>(byAssignee).entrySet()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("assigned_to", e.getKey());
+            row.putAll(counts(e.getValue()));
+            assignees.add(row);
+        }
+        result.put("by_assignee", assignees);
+        return result;
+    }
+
+    private static Map<String, Object> counts(Map<Cell, Long> cells) {
+        long total = 0;
+        long overdue = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        STATUSES.forEach(s -> byStatus.put(s, 0L));
+        PRIORITIES.forEach(p -> byPriority.put(p, 0L));
+        for (Map.Entry<Cell, Long> e : cells.entrySet()) {
+            total += e.getValue();
+            if (e.getKey().overdue()) overdue += e.getValue();
+            byStatus.merge(String.valueOf(e.getKey().status()), e.getValue(), Long::sum);
+            byPriority.merge(String.valueOf(e.getKey().priority()), e.getValue(), Long::sum);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("open", total - byStatus.get("completed"));
+        result.put("overdue", overdue);
+        result.put("by_status", byStatus);
+        result.put("by_priority", byPriority);
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reconcile(true);
+    }
+
+    @Scheduled(initialDelayString = "${tasks.board.verify-interval-ms:600000}", fixedDelayString = "${tasks.board.verify-interval-ms:600000}")
+    public void verify() {
+        reconcile(false);
+    }
+
+    /**
+     * Recomputes the counts from the table. Skipped while task writes are in flight, because the
+     * table may already contain rows whose deltas have not been applied yet.
+     */
+    private void reconcile(boolean initial) {
+        long seen;
+        synchronized (this) {
+            if (inFlight.get() > 0) return;
+            seen = applied;
+        }
+        Map<Long, Map<Cell, Long>> fresh = new HashMap<>();
+        Map<Cell, Long> freshGlobal = new HashMap<>();
+        long total = 0;
+        for (TaskBoardRow row : taskRepository.aggregateBoard()) {
+            Cell cell = new Cell(row.getStatus(), row.getPriority(), Boolean.TRUE.equals(row.getOverdue()));
+            fresh.computeIfAbsent(row.getAssignedToId(), k -> new HashMap<>()).merge(cell, row.getTasks(), Long::sum);
+            freshGlobal.merge(cell, row.getTasks(), Long::sum);
+            total += row.getTasks();
+        }
+        synchronized (this) {
+            if (applied != seen || inFlight.get() > 0) return;
+            if (!initial && fresh.equals(byAssignee) && freshGlobal.equals(global)) return;
+            if (!initial) log.warn("Task board counters drifted from the tasks table; replacing them.");
+            byAssignee = fresh;
+            global = freshGlobal;
+        }
+        if (initial) log.info("Task board counters built: {} tasks across {} assignees.", total, fresh.size());
+    }
+
+    private synchronized void apply(List<Change> changes) {
+        for (Change c : changes) {
+            if (c.before() != null) add(c.before(), -1);
+            if (c.after() != null) add(c.after(), 1);
+        }
+        applied++;
+    }
+
+    private void add(Facts facts, long sign) {
+        Cell cell = new Cell(facts.status(), facts.priority(), facts.overdue());
+        Map<Cell, Long> cells = byAssignee.computeIfAbsent(facts.assignedToId(), k -> new HashMap<>());
+        cells.merge(cell, sign, TaskBoardCounters::sumOrRemove);
+        if (cells.isEmpty()) byAssignee.remove(facts.assignedToId());
+        global.merge(cell, sign, TaskBoardCounters::sumOrRemove);
+    }
+
+    private static Long sumOrRemove(Long a, Long b) {
+        long sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+}
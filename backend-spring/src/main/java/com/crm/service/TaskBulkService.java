@@ -0,0 +1,299 @@
+package com.crm.service;
+
+import com.crm.domain.Permission;
+import com.crm.domain.Task;
+import com.crm.domain.User;
+import com.crm.dto.TaskBulkOperation;
+import com.crm.dto.TaskCreateDto;
+import com.crm.repository.TaskRepository;
+import com.crm.repository.TaskStateRow;
+import com.crm.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of task operations in one transaction. Every referenced user and task is loaded with one query
+ * each, the tasks with a row lock, so the board counter deltas are computed from rows nobody else can change before
+ * commit. Reassign and set_status run as one set-based UPDATE per operation, and creates are inserted with one
+ * JDBC batch. Invalid operations are reported and skipped; the others are applied.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskBulkService {
+
+    private static final int MAX_ITEMS = 1000;
+    private static final Set<String> STATUSES = Set.of("pending", "in_progress", "completed");
+    private static final Set<String> PRIORITIES = Set.of("low", "medium", "high", "urgent");
+    private static final String INSERT_TASK = "INSERT INTO tasks (title, description, status, priority, assigned_to_id, "
+            + "created_by_id, deadline, progress, overdue, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskBoardCounters taskBoardCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private record State(Long assignedToId, String status, String priority, LocalDate deadline, boolean overdue) {
+        static State of(TaskStateRow row) {
+            return new State(row.getAssignedToId(), row.getStatus(), row.getPriority(), row.getDeadline(),
+                    Boolean.TRUE.equals(row.getOverdue()));
+        }
+
+        TaskBoardCounters.Facts facts() {
+            return new TaskBoardCounters.Facts(assignedToId, status, priority, overdue);
+        }
+    }
+
+    /** A validated reassign or set_status: the visible target ids and the change to make. */
+    private record Update(int index, String op, List<Long> ids, User assignee, String status) {
+    }
+
+    private record Create(int index, Task task) {
+    }
+
+    public Map<String, Object> apply(List<TaskBulkOperation> operations, User current) {
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one operation is required.");
+        }
+        int items = operations.stream().mapToInt(o -> o != null && o.getIds() != null ? Math.max(o.getIds().size(), 1) : 1).sum();
+        if (items > MAX_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_ITEMS + " operations and task ids per request.");
+        }
+        long started = System.nanoTime();
+        Map<Integer, Map<String, Object>> results = new TreeMap<>();
+        Integer applied;
+        try {
+            applied = new TransactionTemplate(transactionManager).execute(status -> applyLocked(operations, current, results));
+        } catch (DataIntegrityViolationException e) {
+            // E.g. an assignee deleted after it was loaded; nothing was applied.
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Some of these tasks or users changed concurrently. Retry the request.");
+        }
+
+        int succeeded = applied != null ? applied : 0;
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Bulk task changes by {}: {} applied, {} rejected in {} ms.", current.getUsername(), succeeded,
+                operations.size() - succeeded, elapsedMs);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("succeeded", succeeded);
+        report.put("failed", operations.size() - succeeded);
+        report.put("results", new ArrayList<>(results.values()));
+        report.put("elapsed_ms", elapsedMs);
+        return report;
+    }
+
+    /** Validates and applies the operations inside the caller's transaction; returns the number applied. */
+    private int applyLocked(List<TaskBulkOperation> operations, User current, Map<Integer, Map<String, Object>> results) {
+        Map<Long, User> users = loadUsers(operations);
+        Map<Long, State> states = lockStates(operations);
+        Long scope = AccessPolicy.ownerScope(current, null);
+        LocalDate today = LocalDate.now();
+
+        List<Update> updates = new ArrayList<>();
+        List<Create> creates = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBulkOperation op = operations.get(i);
+            String name = op != null ? op.getOp() : null;
+            if ("create".equals(name)) {
+                String problem = validateCreate(op.getTask(), users, current);
+                if (problem != null) results.put(i, error(i, name, problem));
+                else creates.add(new Create(i, newTask(op.getTask(), users, current, today)));
+            } else if ("reassign".equals(name) || "set_status".equals(name)) {
+                String problem = validateUpdate(op, users, current);
+                if (problem != null) {
+                    results.put(i, error(i, name, problem));
+                    continue;
+                }
+                List<Long> visible = new ArrayList<>();
+                List<Long> notFound = new ArrayList<>();
+                for (Long id : new LinkedHashSet<>(op.getIds())) {
+                    State s = states.get(id);
+                    if (s != null && (scope == null || scope.equals(s.assignedToId()))) visible.add(id);
+                    else notFound.add(id);
+                }
+                if (!notFound.isEmpty()) {
+                    Map<String, Object> result = error(i, name, "Some tasks were not found.");
+                    result.put("not_found", notFound);
+                    results.put(i, result);
+                }
+                if (!visible.isEmpty()) {
+                    updates.add(new Update(i, name, visible,
+                            "reassign".equals(name) ? users.get(op.getAssignedTo()) : null, op.getStatus()));
+                }
+            } else {
+                results.put(i, error(i, name, "op must be one of create, reassign, set_status."));
+            }
+        }
+
+        List<Long> createdIds = execute(updates, creates, states, today);
+        for (Update u : updates) {
+            Map<String, Object> result = results.computeIfAbsent(u.index(), k -> new LinkedHashMap<>());
+            result.put("index", u.index());
+            result.put("op", u.op());
+            result.put("status", result.containsKey("not_found") ? "partial" : "updated");
+            result.put("updated", u.ids().size());
+        }
+        for (int i = 0; i < creates.size(); i++) {
+            Create c = creates.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", c.index());
+            result.put("op", "create");
+            result.put("status", "created");
+            result.put("id", createdIds.get(i));
+            results.put(c.index(), result);
+        }
+        return updates.size() + creates.size();
+    }
+
+    private Map<Long, User> loadUsers(List<TaskBulkOperation> operations) {
+        Set<Long> ids = new HashSet<>();
+        for (TaskBulkOperation op : operations) {
+            if (op == null) continue;
+            if (op.getAssignedTo() != null) ids.add(op.getAssignedTo());
+            if (op.getTask() != null && op.getTask().getAssignedTo() != null) ids.add(op.getTask().getAssignedTo());
+        }
+        if (ids.isEmpty()) return Map.of();
+        return userRepository.findAllById(ids).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private Map<Long, State> lockStates(List<TaskBulkOperation> operations) {
+        Set<Long> ids = new HashSet<>();
+        for (TaskBulkOperation op : operations) {
+            if (op != null && op.getIds() != null) op.getIds().stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.isEmpty()) return new HashMap<>();
+        Map<Long, State> states = new HashMap<>();
+        for (TaskStateRow row : taskRepository.lockStates(ids)) states.put(row.getId(), State.of(row));
+        return states;
+    }
+
+    private static String validateCreate(TaskCreateDto dto, Map<Long, User> users, User current) {
+        if (!current.can(Permission.ASSIGN_TASKS)) return "Only admin/HR can assign tasks.";
+        if (dto == null) return "task is required.";
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) return "title is required.";
+        if (dto.getTitle().length() > 255) return "title is longer than 255 characters.";
+        if (dto.getAssignedTo() == null || !users.containsKey(dto.getAssignedTo())) return "Invalid assigned_to user.";
+        if (dto.getStatus() != null && !STATUSES.contains(dto.getStatus())) return "Invalid status.";
+        if (dto.getPriority() != null && !PRIORITIES.contains(dto.getPriority())) return "Invalid priority.";
+        if (dto.getProgress() != null && (dto.getProgress() < 0 || dto.getProgress() > 100)) return "progress must be between 0 and 100.";
+        return null;
+    }
+
+    private static String validateUpdate(TaskBulkOperation op, Map<Long, User> users, User current) {
+        if (op.getIds() == null || op.getIds().isEmpty() || op.getIds().contains(null)) return "ids is required.";
+        if ("reassign".equals(op.getOp())) {
+            if (!current.can(Permission.ASSIGN_TASKS)) return "Only admin/HR can assign tasks.";
+            if (op.getAssignedTo() == null || !users.containsKey(op.getAssignedTo())) return "Invalid assigned_to user.";
+        } else if (op.getStatus() == null || !STATUSES.contains(op.getStatus())) {
+            return "status must be one of pending, in_progress, completed.";
+        }
+        return null;
+    }
+
+    private static Task newTask(TaskCreateDto dto, Map<Long, User> users, User current, LocalDate today) {
+        Task task = Task.builder()
+                .title(dto.getTitle())
+                .description(dto.getDescription())
+                .status(dto.getStatus() != null ? dto.getStatus() : "pending")
+                .priority(dto.getPriority() != null ? dto.getPriority() : "medium")
+                .assignedTo(users.get(dto.getAssignedTo()))
+                .createdBy(current)
+                .deadline(dto.getDeadline())
+                .progress(dto.getProgress() != null ? dto.getProgress() : 0)
+                .build();
+        task.refreshOverdue(today);
+        return task;
+    }
+
+    /** Runs the updates in request order, then the creates; returns the created ids. */
+    private List<Long> execute(List<Update> updates, List<Create> creates, Map<Long, State> states, LocalDate today) {
+        if (updates.isEmpty() && creates.isEmpty()) return List.of();
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskBoardCounters.Change> changes = new ArrayList<>();
+        for (Update u : updates) {
+            if (u.assignee() != null) taskRepository.reassign(u.ids(), u.assignee(), now);
+            else if ("completed".equals(u.status())) taskRepository.complete(u.ids(), now);
+            else taskRepository.setOpenStatus(u.ids(), u.status(), today, now);
+            for (Long id : u.ids()) {
+                State before = states.get(id);
+                State after = u.assignee() != null
+                        ? new State(u.assignee().getId(), before.status(), before.priority(), before.deadline(), before.overdue())
+                        : new State(before.assignedToId(), u.status(), before.priority(), before.deadline(),
+                                overdueAfter(u.status(), before.deadline(), today));
+                states.put(id, after);
+                changes.add(new TaskBoardCounters.Change(before.facts(), after.facts()));
+            }
+        }
+        List<Long> ids = insert(creates, now);
+        for (Create c : creates) changes.add(new TaskBoardCounters.Change(null, TaskBoardCounters.Facts.of(c.task())));
+        taskBoardCounters.recordAll(changes);
+        return ids;
+    }
+
+    /** The overdue flag {@link TaskRepository#setOpenStatus} or {@link TaskRepository#complete} leaves behind. */
+    private static boolean overdueAfter(String status, LocalDate deadline, LocalDate today) {
+        Task probe = Task.builder().status(status).deadline(deadline).build();
+        probe.refreshOverdue(today);
+        return probe.getIsOverdue();
+    }
+
+    private List<Long> insert(List<Create> creates, LocalDateTime now) {
+        if (creates.isEmpty()) return List.of();
+        Timestamp ts = Timestamp.valueOf(now);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TASK, new String[]{"id"}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Task t = creates.get(i).task();
+                ps.setString(1, t.getTitle());
+                ps.setString(2, t.getDescription());
+                ps.setString(3, t.getStatus());
+                ps.setString(4, t.getPriority());
+                ps.setLong(5, t.getAssignedTo().getId());
+                ps.setLong(6, t.getCreatedBy().getId());
+                if (t.getDeadline() != null) ps.setDate(7, Date.valueOf(t.getDeadline()));
+                else ps.setNull(7, Types.DATE);
+                ps.setInt(8, t.getProgress());
+                ps.setBoolean(9, t.getIsOverdue());
+                ps.setTimestamp(10, ts);
+                ps.setTimestamp(11, ts);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return creates.size();
+            }
+        }, keys);
+        return keys.getKeyList().stream().map(k -> ((Number) k.get(k.containsKey("id") ? "id" : "ID")).longValue()).toList();
+    }
+
+    private static Map<String, Object> error(int index, String op, String detail) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("op", op);
+        result.put("status", "error");
+        result.put("detail", detail);
+        return result;
+    }
+}
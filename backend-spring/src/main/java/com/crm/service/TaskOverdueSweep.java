@@ -0,0 +1,78 @@
+package com.crm.service;
+
+import com.crm.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Flags tasks whose deadline has passed as overdue, with one bulk UPDATE, so overdue tasks can be filtered and
+ * counted from an indexed column. The workflow status is not touched. Task writes apply the same rule row by row
+ * ({@code Task.refreshOverdue}); this only has to catch deadlines that lapse with the date. Runs at startup and on {@code tasks.overdue-sweep.cron},
+ * on whichever instance claims the lease.
+ */
+@Component
+@Slf4j
+public class TaskOverdueSweep {
+
+    static final String LEASE = "task-overdue-sweep";
+
+    private final TaskRepository taskRepository;
+    private final SchedulerLeases leases;
+    private final TaskBoardCounters taskBoardCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseDuration;
+    private final Counter marked;
+
+    public TaskOverdueSweep(TaskRepository taskRepository, SchedulerLeases leases, TaskBoardCounters taskBoardCounters,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${tasks.overdue-sweep.lease:PT5M}") Duration leaseDuration) {
+        this.taskRepository = taskRepository;
+        this.leases = leases;
+        this.taskBoardCounters = taskBoardCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseDuration = leaseDuration;
+        this.marked = Counter.builder("tasks.overdue.marked")
+                .description("Tasks flagged overdue by the scheduled sweep")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        sweep();
+    }
+
+    @Scheduled(cron = "${tasks.overdue-sweep.cron:0 0 * * * *}")
+    public void scheduled() {
+        sweep();
+    }
+
+    /** Runs the sweep if this instance gets the lease; returns the number of tasks marked, or -1 if skipped. */
+    public int sweep() {
+        if (!leases.tryAcquire(LEASE, leaseDuration)) {
+            log.debug("Overdue sweep skipped; another instance holds the lease.");
+            return -1;
+        }
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
+        Integer updated = transactionTemplate.execute(status -> taskRepository.markOverdue(today));
+        int count = updated != null ? updated : 0;
+        marked.increment(count);
+        if (count > 0) taskBoardCounters.rebuild();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        if (count > 0) log.info("Overdue sweep marked {} tasks in {} ms.", count, elapsedMs);
+        else log.debug("Overdue sweep found no newly overdue tasks ({} ms).", elapsedMs);
+        return count;
+    }
+}
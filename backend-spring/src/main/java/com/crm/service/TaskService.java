@@ -1,21 +1,32 @@
 package com.crm.service;
 
+import com.crm.domain.Permission;
 import com.crm.domain.Task;
 import com.crm.domain.TaskNote;
 import com.crm.domain.User;
 import com.crm.domain.WorkActivity;
 import com.crm.dto.*;
+import com.crm.repository.TaskNoteCount;
+import com.crm.repository.TaskNoteRepository;
+import com.crm.repository.TaskOrder;
 import com.crm.repository.TaskRepository;
+import com.crm.repository.TaskSpecifications;
 import com.crm.repository.UserRepository;
 import com.crm.repository.WorkActivityRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,30 +34,93 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskNoteRepository taskNoteRepository;
     private final UserRepository userRepository;
     private final WorkActivityRepository workActivityRepository;
+    private final TaskBoardCounters taskBoardCounters;
 
+    /**
+     * One page of visible tasks matching the filters, in the requested order. Costs two queries: one for the
+     * tasks with their assignee and creator, one for either their notes (with authors) or just note counts.
+     */
     @Transactional(readOnly = true)
-    public List<TaskDto> listTasks(User current) {
-        List<Task> tasks = current.isAdminOrHr()
-                ? taskRepository.findAllByOrderByCreatedAtDesc()
-                : taskRepository.findByAssignedToOrderByCreatedAtDesc(current);
-        return tasks.stream().map(this::toDto).collect(Collectors.toList());
+    public CursorPage<TaskDto> listTasks(User current, String status, String priority, Long assignedTo, Long createdBy,
+                                         LocalDate deadlineFrom, LocalDate deadlineTo, Boolean overdue, String sort,
+                                         boolean includeNotes, String cursor, Integer limit) {
+        TaskOrder order = TaskOrder.fromParam(sort);
+        if (order == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sort.");
+        int pageSize = KeysetCursor.pageSize(limit);
+        Specification<Task> spec = taskFilter(current, status, priority, assignedTo, createdBy, deadlineFrom, deadlineTo, overdue);
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 3);
+            if (!order.param().equals(key[0])) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+            try {
+                spec = spec.and(order.after(order.parseKey(key[1]), Long.parseLong(key[2])));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+            }
+        }
+        List<Task> rows = taskRepository.findPage(spec, order, pageSize + 1);
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Task last = rows.get(pageSize - 1);
+            next = KeysetCursor.encode(order.param(), order.keyOf(last), last.getId());
+        }
+        return CursorPage.<TaskDto>builder()
+                .results(toDtos(rows, includeNotes))
+                .nextCursor(next)
+                .build();
+    }
+
+    private static Specification<Task> taskFilter(User current, String status, String priority, Long assignedTo, Long createdBy,
+                                                  LocalDate deadlineFrom, LocalDate deadlineTo, Boolean overdue) {
+        Specification<Task> spec = Specification.where(AccessPolicy.tasks(current));
+        if (status != null) spec = spec.and(TaskSpecifications.hasStatus(status));
+        if (priority != null) spec = spec.and(TaskSpecifications.hasPriority(priority));
+        if (assignedTo != null) spec = spec.and(TaskSpecifications.assignedTo(assignedTo));
+        if (createdBy != null) spec = spec.and(TaskSpecifications.createdBy(createdBy));
+        if (deadlineFrom != null) spec = spec.and(TaskSpecifications.deadlineFrom(deadlineFrom));
+        if (deadlineTo != null) spec = spec.and(TaskSpecifications.deadlineTo(deadlineTo));
+        if (overdue != null) spec = spec.and(overdue ? TaskSpecifications.overdue() : TaskSpecifications.notOverdue());
+        return spec;
+    }
+
+    private List<TaskDto> toDtos(List<Task> tasks, boolean includeNotes) {
+        if (tasks.isEmpty()) return List.of();
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        List<TaskDto> result = new ArrayList<>(tasks.size());
+        if (includeNotes) {
+            Map<Long, List<TaskNoteDto>> notes = new HashMap<>();
+            for (TaskNote n : taskNoteRepository.findWithAuthorByTaskIdIn(ids)) {
+                notes.computeIfAbsent(n.getTask().getId(), k -> new ArrayList<>()).add(toNoteDto(n));
+            }
+            for (Task t : tasks) {
+                List<TaskNoteDto> own = notes.getOrDefault(t.getId(), List.of());
+                result.add(toDto(t, own, own.size()));
+            }
+        } else {
+            Map<Long, Long> counts = new HashMap<>();
+            for (TaskNoteCount c : taskNoteRepository.countByTaskIdIn(ids)) {
+                counts.put(c.getTaskId(), c.getNotes());
+            }
+            for (Task t : tasks) {
+                result.add(toDto(t, null, counts.getOrDefault(t.getId(), 0L).intValue()));
+            }
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
     public TaskDto getTask(Long id, User current) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found."));
-        if (!current.isAdminOrHr() && !task.getAssignedTo().getId().equals(current.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only view your own tasks.");
-        }
+        Task task = AccessPolicy.findVisible(taskRepository, id, AccessPolicy.tasks(current),
+                "Task not found.", "You can only view your own tasks.");
         return toDto(task);
     }
 
     @Transactional
     public TaskDto createTask(TaskCreateDto dto, User current) {
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.ASSIGN_TASKS)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin/HR can assign tasks.");
         }
         User assignedTo = userRepository.findById(dto.getAssignedTo())
@@ -57,26 +131,26 @@ public class TaskService {
                 .status(dto.getStatus() != null ? dto.getStatus() : "pending")
                 .priority(dto.getPriority() != null ? dto.getPriority() : "medium")
                 .assignedTo(assignedTo)
-                .createdBy(current)
+                .createdBy(persisted(current))
                 .deadline(dto.getDeadline())
                 .progress(dto.getProgress() != null ? dto.getProgress() : 0)
                 .build();
+        task.refreshOverdue(LocalDate.now());
         task = taskRepository.save(task);
+        taskBoardCounters.record(null, TaskBoardCounters.Facts.of(task));
         return toDto(task);
     }
 
     @Transactional
     public TaskDto updateTask(Long id, TaskUpdateDto dto, User current) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found."));
-        if (!task.getAssignedTo().getId().equals(current.getId()) && !current.isAdminOrHr()) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only update your own tasks.");
-        }
+        Task task = AccessPolicy.lockVisible(taskRepository, taskRepository::lockById, id, AccessPolicy.tasks(current),
+                "Task not found.", "You can only update your own tasks.");
+        TaskBoardCounters.Facts before = TaskBoardCounters.Facts.of(task);
         if (dto.getTitle() != null) task.setTitle(dto.getTitle());
         if (dto.getDescription() != null) task.setDescription(dto.getDescription());
         if (dto.getStatus() != null) task.setStatus(dto.getStatus());
         if (dto.getPriority() != null) task.setPriority(dto.getPriority());
-        if (dto.getAssignedTo() != null && current.isAdminOrHr()) {
+        if (dto.getAssignedTo() != null && current.can(Permission.ASSIGN_TASKS)) {
             User assigned = userRepository.findById(dto.getAssignedTo()).orElse(task.getAssignedTo());
             task.setAssignedTo(assigned);
         }
@@ -86,33 +160,41 @@ public class TaskService {
             task.setCompletedAt(LocalDateTime.now());
             task.setProgress(100);
         }
+        task.refreshOverdue(LocalDate.now());
         task = taskRepository.save(task);
+        taskBoardCounters.record(before, TaskBoardCounters.Facts.of(task));
         return toDto(task);
     }
 
     @Transactional
     public void deleteTask(Long id, User current) {
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.lockById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found."));
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.ASSIGN_TASKS)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only admin/HR can delete tasks.");
         }
         taskRepository.delete(task);
+        taskBoardCounters.record(TaskBoardCounters.Facts.of(task), null);
+    }
+
+    /**
+     * Task counts by status and priority. Managers get everyone's with a per-assignee breakdown, or one assignee's
+     * when {@code assignedTo} is given; everyone else gets their own.
+     */
+    public Map<String, Object> summary(User current, Long assignedTo) {
+        return taskBoardCounters.summary(AccessPolicy.ownerScope(current, assignedTo));
     }
 
     @Transactional
     public TaskNoteDto addNote(Long taskId, String content, User current) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found."));
-        if (!task.getAssignedTo().getId().equals(current.getId()) && !current.isAdminOrHr()) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only add notes to your own tasks.");
-        }
+        Task task = AccessPolicy.findVisible(taskRepository, taskId, AccessPolicy.tasks(current),
+                "Task not found.", "You can only add notes to your own tasks.");
         if (content == null || content.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content is required.");
         }
         TaskNote note = TaskNote.builder()
                 .task(task)
-                .author(current)
+                .author(persisted(current))
                 .content(content.trim())
                 .build();
         task.getNotes().add(note);
@@ -121,22 +203,17 @@ public class TaskService {
     }
 
     public List<WorkActivityDto> listActivities(User current, Long userId) {
-        if (userId != null && current.isAdminOrHr()) {
-            return workActivityRepository.findByUserIdOrderByDateDescCreatedAtDesc(userId)
-                    .stream().map(this::toActivityDto).collect(Collectors.toList());
-        }
-        if (current.isAdminOrHr()) {
-            return workActivityRepository.findAllByOrderByDateDescCreatedAtDesc()
-                    .stream().map(this::toActivityDto).collect(Collectors.toList());
-        }
-        return workActivityRepository.findByUserIdOrderByDateDescCreatedAtDesc(current.getId())
-                .stream().map(this::toActivityDto).collect(Collectors.toList());
+        Long visibleUser = AccessPolicy.ownerScope(current, userId);
+        List<WorkActivity> activities = visibleUser != null
+                ? workActivityRepository.findByUserIdOrderByDateDescCreatedAtDesc(visibleUser)
+                : workActivityRepository.findAllByOrderByDateDescCreatedAtDesc();
+        return activities.stream().map(this::toActivityDto).collect(Collectors.toList());
     }
 
     @Transactional
     public WorkActivityDto createActivity(WorkActivityDto dto, User current) {
         WorkActivity activity = WorkActivity.builder()
-                .user(current)
+                .user(persisted(current))
                 .activityType(dto.getActivityType() != null ? dto.getActivityType() : "daily")
                 .content(dto.getContent())
                 .date(dto.getDate())
@@ -145,6 +222,11 @@ public class TaskService {
         return toActivityDto(activity);
     }
 
+    /** The caller as a managed reference, so DTOs show its stored profile rather than the token's subset. */
+    private User persisted(User current) {
+        return userRepository.getReferenceById(current.getId());
+    }
+
     private static String userName(User u) {
         if (u == null) return null;
         String full = (u.getFirstName() != null ? u.getFirstName() : "") + " " + (u.getLastName() != null ? u.getLastName() : "").trim();
@@ -177,6 +259,10 @@ public class TaskService {
 
     private TaskDto toDto(Task t) {
         var notes = t.getNotes() != null ? t.getNotes().stream().map(this::toNoteDto).collect(Collectors.toList()) : List.<TaskNoteDto>of();
+        return toDto(t, notes, notes.size());
+    }
+
+    private TaskDto toDto(Task t, List<TaskNoteDto> notes, int noteCount) {
         var assignedTo = t.getAssignedTo();
         return TaskDto.builder()
                 .id(t.getId())
@@ -191,6 +277,7 @@ public class TaskService {
                 .deadline(t.getDeadline())
                 .progress(t.getProgress())
                 .notes(notes)
+                .noteCount(noteCount)
                 .createdAt(t.getCreatedAt())
                 .updatedAt(t.getUpdatedAt())
                 .completedAt(t.getCompletedAt())
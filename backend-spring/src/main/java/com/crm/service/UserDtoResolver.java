@@ -0,0 +1,23 @@
+package com.crm.service;
+
+import com.crm.domain.User;
+import com.crm.dto.UserDto;
+
+import java.util.Map;
+
+/**
+ * User details for one list/detail response, loaded up front with a single IN query
+ * (see {@link UserService#resolverFor}) so DTO mapping never goes back to the database per row.
+ */
+public final class UserDtoResolver {
+
+    private final Map<Long, UserDto> byId;
+
+    UserDtoResolver(Map<Long, UserDto> byId) {
+        this.byId = byId;
+    }
+
+    public UserDto get(User u) {
+        return u == null ? null : byId.get(u.getId());
+    }
+}
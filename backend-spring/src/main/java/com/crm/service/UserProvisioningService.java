@@ -0,0 +1,207 @@
+package com.crm.service;
+
+import com.crm.domain.Permission;
+import com.crm.domain.User;
+import com.crm.dto.UserCreateDto;
+import com.crm.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many users in one request. Uniqueness is checked with one query for all emails and one for all
+ * usernames, passwords are hashed in parallel on a pool sized to the CPUs, and valid rows are inserted
+ * with one JDBC batch. Invalid rows are reported and skipped; the others are created.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserProvisioningService {
+
+    private static final int MAX_USERS = 1000;
+    private static final String INSERT_USER = "INSERT INTO users (username, email, password_hash, first_name, last_name, role, "
+            + "department, phone, address, dob, doj, age, active, token_version, date_joined, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ForkJoinPool hashPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private record Row(int index, UserCreateDto dto, String role) {
+    }
+
+    public Map<String, Object> createUsers(List<UserCreateDto> users, User current) {
+        if (!current.can(Permission.MANAGE_USERS)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to create users.");
+        }
+        if (users == null || users.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one user is required.");
+        }
+        if (users.size() > MAX_USERS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_USERS + " users per request.");
+        }
+        long started = System.nanoTime();
+        Map<Integer, Map<String, Object>> results = new TreeMap<>();
+        List<Row> valid = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            UserCreateDto dto = users.get(i);
+            String problem = dto == null ? "User is required." : validate(dto);
+            if (problem != null) {
+                results.put(i, error(i, problem));
+            } else {
+                String role = UserService.isAllowedRole(dto.getRole()) ? dto.getRole().toLowerCase() : "user";
+                valid.add(new Row(i, dto, role));
+            }
+        }
+        valid = rejectDuplicates(valid, results);
+        if (!valid.isEmpty()) {
+            List<String> hashes = hash(valid);
+            List<Long> ids = insert(valid, hashes);
+            for (int i = 0; i < valid.size(); i++) {
+                Row r = valid.get(i);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("index", r.index());
+                result.put("status", "created");
+                result.put("id", ids.get(i));
+                result.put("username", r.dto().getUsername());
+                results.put(r.index(), result);
+            }
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Bulk user creation by {}: {} created, {} failed in {} ms.", current.getUsername(), valid.size(),
+                users.size() - valid.size(), elapsedMs);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("created", valid.size());
+        report.put("failed", users.size() - valid.size());
+        report.put("results", new ArrayList<>(results.values()));
+        report.put("elapsed_ms", elapsedMs);
+        return report;
+    }
+
+    private String validate(UserCreateDto dto) {
+        Set<ConstraintViolation<UserCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserCreateDto> v = violations.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+        if (!dto.getPassword().equals(dto.getPassword2())) return "Password fields didn't match.";
+        if (dto.getPhone() != null && dto.getPhone().length() > 20) return "phone is longer than 20 characters.";
+        if (dto.getDepartment() != null && dto.getDepartment().length() > 50) return "department is longer than 50 characters.";
+        return null;
+    }
+
+    /** Drops rows whose email or username is taken, in the database (two queries) or earlier in the request. */
+    private List<Row> rejectDuplicates(List<Row> rows, Map<Integer, Map<String, Object>> results) {
+        if (rows.isEmpty()) return rows;
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmailsLowercase(
+                rows.stream().map(r -> r.dto().getEmail().toLowerCase()).collect(Collectors.toSet())));
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                rows.stream().map(r -> r.dto().getUsername()).collect(Collectors.toSet())));
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            if (!takenEmails.add(r.dto().getEmail().toLowerCase())) {
+                results.put(r.index(), error(r.index(), "A user with this email already exists."));
+            } else if (!takenUsernames.add(r.dto().getUsername())) {
+                results.put(r.index(), error(r.index(), "A user with this username already exists."));
+            } else {
+                unique.add(r);
+            }
+        }
+        return unique;
+    }
+
+    private List<String> hash(List<Row> rows) {
+        try {
+            return hashPool.submit(() -> rows.parallelStream()
+                    .map(r -> passwordEncoder.encode(r.dto().getPassword()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while hashing passwords.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    private List<Long> insert(List<Row> rows, List<String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_USER, new String[]{"id"}), new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            UserCreateDto d = rows.get(i).dto();
+                            ps.setString(1, d.getUsername());
+                            ps.setString(2, d.getEmail());
+                            ps.setString(3, hashes.get(i));
+                            ps.setString(4, d.getFirstName());
+                            ps.setString(5, d.getLastName());
+                            ps.setString(6, rows.get(i).role());
+                            ps.setString(7, d.getDepartment());
+                            ps.setString(8, d.getPhone());
+                            ps.setString(9, d.getAddress());
+                            ps.setDate(10, d.getDob() != null ? Date.valueOf(d.getDob()) : null);
+                            ps.setDate(11, d.getDoj() != null ? Date.valueOf(d.getDoj()) : null);
+                            if (d.getAge() != null) ps.setInt(12, d.getAge());
+                            else ps.setNull(12, Types.INTEGER);
+                            ps.setBoolean(13, true);
+                            ps.setInt(14, 0);
+                            ps.setTimestamp(15, now);
+                            ps.setTimestamp(16, now);
+                            ps.setTimestamp(17, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys));
+        } catch (DataIntegrityViolationException e) {
+            // Another request created one of these users after the uniqueness check; nothing was inserted.
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Some of these users were created concurrently. Retry the request.");
+        }
+        return keys.getKeyList().stream().map(k -> ((Number) k.get(k.containsKey("id") ? "id" : "ID")).longValue()).toList();
+    }
+
+    private static Map<String, Object> error(int index, String detail) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("status", "error");
+        result.put("detail", detail);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+}
@@ -1,9 +1,17 @@
 package com.crm.service;
 
+import com.crm.domain.Permission;
 import com.crm.domain.User;
 import com.crm.dto.*;
 import com.crm.repository.UserRepository;
 import com.crm.security.JwtService;
+import com.crm.security.LoginGuard;
+import com.crm.security.PrincipalCache;
+import com.crm.security.RefreshTokenService;
+import com.crm.security.TokenDenylist;
+import com.crm.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -12,8 +20,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,31 +36,84 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenylist denylist;
+    private final LoginGuard loginGuard;
 
-    public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmailIgnoreCase(request.getEmail().trim())
+    /**
+     * Rate limited per email and client address; the password check runs on {@link LoginGuard}'s pool so a
+     * login burst does not hold request threads.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request, String clientAddress) {
+        String email = request.getEmail().trim();
+        loginGuard.admit(email, clientAddress);
+        User user = userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new BadCredentialsException("Invalid email or password."));
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new BadCredentialsException("Invalid email or password.");
+        return loginGuard.hash(() -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new BadCredentialsException("Invalid email or password.");
+                    }
+                    if (!user.isEnabled()) {
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User account is disabled.");
+                    }
+                    String access = jwtService.buildAccessToken(user);
+                    String refresh = refreshTokenService.issue(user);
+                    return AuthResponse.builder()
+                            .access(access)
+                            .refresh(refresh)
+                            .user(toDto(user))
+                            .build();
+                });
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and its one-time successor; no password check.
+     * Not transactional: each refresh-store write commits in its own transaction.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "refresh is required.");
         }
-        if (!user.isEnabled()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User account is disabled.");
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+                .filter(u -> u.isEnabled() && JwtService.versionOf(u) == rotation.version())
+                .orElse(null);
+        if (user == null) {
+            refreshTokenService.revokeFamily(rotation.family());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token.");
         }
-        String access = jwtService.buildAccessToken(user);
-        String refresh = jwtService.buildRefreshToken(user);
         return AuthResponse.builder()
-                .access(access)
-                .refresh(refresh)
+                .access(jwtService.buildAccessToken(user))
+                .refresh(refreshTokenService.issueSuccessor(user, rotation))
                 .user(toDto(user))
                 .build();
     }
 
+    /** Revokes the access token and, if given, the refresh token's family. Idempotent; invalid tokens are ignored. */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtService.parseClaims(accessToken);
+                Number userId = claims.get("userId", Number.class);
+                if (!JwtService.isRefreshToken(claims) && claims.getExpiration() != null) {
+                    denylist.revoke(claims.getId(), userId != null ? userId.longValue() : null, claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException ignored) {
+                // already unusable
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) refreshTokenService.revoke(refreshToken);
+    }
+
     @Transactional
     public AuthResponse register(UserCreateDto dto) {
         if (!dto.getPassword().equals(dto.getPassword2())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password fields didn't match.");
         }
-        if (userRepository.existsByEmail(dto.getEmail())) {
+        if (userRepository.existsByEmailIgnoreCase(dto.getEmail())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A user with this email already exists.");
         }
         if (userRepository.existsByUsername(dto.getUsername())) {
@@ -58,7 +124,7 @@ public class UserService {
         user.setRole("user");
         user = userRepository.save(user);
         String access = jwtService.buildAccessToken(user);
-        String refresh = jwtService.buildRefreshToken(user);
+        String refresh = refreshTokenService.issue(user);
         return AuthResponse.builder()
                 .access(access)
                 .refresh(refresh)
@@ -68,23 +134,30 @@ public class UserService {
 
     private static final List<String> ALLOWED_ROLES = List.of("user", "hr", "admin", "finance", "tech_support");
 
-    private static boolean isAllowedRole(String role) {
+    static boolean isAllowedRole(String role) {
         return role != null && ALLOWED_ROLES.contains(role.toLowerCase());
     }
 
+    /** Read from the database: the principal may have been built from token claims and lack profile fields. */
+    @Transactional(readOnly = true)
     public UserDto getCurrentUser(User current) {
-        return toDto(current);
+        return toDto(reload(current));
     }
 
     public List<UserDto> listUsers(User current) {
-        if (current.isAdminOrHr()) {
+        if (current.can(Permission.VIEW_ALL)) {
             return userRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
         }
-        return List.of(toDto(current));
+        return List.of(toDto(reload(current)));
+    }
+
+    private User reload(User current) {
+        return userRepository.findById(current.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found."));
     }
 
     public UserDto getById(Long id, User current) {
-        if (!current.isAdminOrHr() && !current.getId().equals(id)) {
+        if (!current.can(Permission.VIEW_ALL) && !current.getId().equals(id)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to view this user.");
         }
         User user = userRepository.findById(id)
@@ -92,15 +165,24 @@ public class UserService {
         return toDto(user);
     }
 
+    /** Loads every referenced user with one query; works on lazy proxies without initializing them. */
+    public UserDtoResolver resolverFor(Collection<User> refs) {
+        Set<Long> ids = refs.stream().filter(Objects::nonNull).map(User::getId).collect(Collectors.toSet());
+        if (ids.isEmpty()) return new UserDtoResolver(Map.of());
+        Map<Long, UserDto> byId = new HashMap<>();
+        for (User u : userRepository.findAllById(ids)) byId.put(u.getId(), toDto(u));
+        return new UserDtoResolver(byId);
+    }
+
     @Transactional
     public UserDto createUser(UserCreateDto dto, User current) {
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.MANAGE_USERS)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to create users.");
         }
         if (!dto.getPassword().equals(dto.getPassword2())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password fields didn't match.");
         }
-        if (userRepository.existsByEmail(dto.getEmail())) {
+        if (userRepository.existsByEmailIgnoreCase(dto.getEmail())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A user with this email already exists.");
         }
         if (userRepository.existsByUsername(dto.getUsername())) {
@@ -116,21 +198,24 @@ public class UserService {
 
     @Transactional
     public UserDto updateUser(Long id, UserUpdateDto dto, User current) {
-        if (!current.isAdminOrHr() && !current.getId().equals(id)) {
+        if (!current.can(Permission.MANAGE_USERS) && !current.getId().equals(id)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to update this user.");
         }
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found."));
+        String previousUsername = user.getUsername();
+        String previousRole = user.getRole();
+        boolean wasActive = user.isEnabled();
         if (dto.getUsername() != null) user.setUsername(dto.getUsername());
         if (dto.getEmail() != null) {
-            if (!dto.getEmail().equals(user.getEmail()) && userRepository.existsByEmail(dto.getEmail())) {
+            if (!dto.getEmail().equalsIgnoreCase(user.getEmail()) && userRepository.existsByEmailIgnoreCase(dto.getEmail())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A user with this email already exists.");
             }
             user.setEmail(dto.getEmail());
         }
         if (dto.getFirstName() != null) user.setFirstName(dto.getFirstName());
         if (dto.getLastName() != null) user.setLastName(dto.getLastName());
-        if (dto.getRole() != null && current.isAdminOrHr() && isAllowedRole(dto.getRole())
+        if (dto.getRole() != null && current.can(Permission.MANAGE_USERS) && isAllowedRole(dto.getRole())
                 && !"superadmin".equalsIgnoreCase(user.getRole())) {
             user.setRole(dto.getRole().toLowerCase());
         }
@@ -140,14 +225,23 @@ public class UserService {
         if (dto.getDob() != null) user.setDob(dto.getDob());
         if (dto.getDoj() != null) user.setDoj(dto.getDoj());
         if (dto.getAge() != null) user.setAge(dto.getAge());
-        if (dto.getActive() != null && current.isAdminOrHr()) user.setActive(dto.getActive());
+        if (dto.getActive() != null && current.can(Permission.MANAGE_USERS)) user.setActive(dto.getActive());
+        if (!Objects.equals(previousRole, user.getRole()) || wasActive != user.isEnabled()) {
+            // Outstanding tokens carry the old role; make them stale.
+            user.setTokenVersion(JwtService.versionOf(user) + 1);
+        }
         user = userRepository.save(user);
+        evictPrincipal(previousUsername, user.getUsername());
+        Long userId = user.getId();
+        int version = JwtService.versionOf(user);
+        boolean active = user.isEnabled();
+        AfterCommit.run(() -> tokenVersions.update(userId, version, active));
         return toDto(user);
     }
 
     @Transactional
     public void deleteUser(Long id, User current) {
-        if (!current.isAdminOrHr()) {
+        if (!current.can(Permission.MANAGE_USERS)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to delete users.");
         }
         User target = userRepository.findById(id)
@@ -156,6 +250,14 @@ public class UserService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Superadmin cannot be deleted.");
         }
         userRepository.deleteById(id);
+        evictPrincipal(target.getUsername());
+        AfterCommit.run(() -> tokenVersions.revoke(id));
+    }
+
+    /** Evicts now and again after commit, so a concurrent request cannot re-cache the pre-commit row. */
+    private void evictPrincipal(String... usernames) {
+        principalCache.evict(usernames);
+        AfterCommit.run(() -> principalCache.evict(usernames));
     }
 
     private UserDto toDto(User u) {
@@ -0,0 +1,97 @@
+package com.crm.security;
+
+import com.crm.domain.RoleAuthorities;
+import com.crm.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Allocation on the per-request authentication path, measured with the thread allocation counter. */
+class AuthenticationAllocationTest {
+
+    private static final int ITERATIONS = 1_000_000;
+    // Far below one object per call (a SimpleGrantedAuthority plus its list is ~50 bytes).
+    private static final long MAX_BYTES = 64 * 1024;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void resolvingAuthoritiesAllocatesNothingPerCall() {
+        User user = User.builder().id(1L).username("alloc").role("admin").build();
+        long bytes = allocatedBy(() -> {
+            int n = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
+                n += authorities.size() + RoleAuthorities.of("hr").size();
+            }
+            return n;
+        });
+        System.out.printf("getAuthorities + RoleAuthorities.of: %d bytes over %d calls%n", bytes, ITERATIONS);
+        assertThat(bytes).isLessThan(MAX_BYTES);
+    }
+
+    @Test
+    void cachedPrincipalIsSharedWithoutPerRequestAllocation() {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache cache = new PrincipalCache(username -> {
+            loads.incrementAndGet();
+            return User.builder().id(2L).username(username).role("user").active(true).build();
+        }, new SimpleMeterRegistry(), 100, 60_000);
+        JwtAuthentication first = cache.load("cached");
+
+        long bytes = allocatedBy(() -> {
+            int n = 0;
+            for (int i = 0; i < ITERATIONS; i++) n += cache.load("cached").getAuthorities().size();
+            return n;
+        });
+        System.out.printf("PrincipalCache.load hit: %d bytes over %d calls%n", bytes, ITERATIONS);
+        assertThat(cache.load("cached")).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(bytes).isLessThan(MAX_BYTES);
+    }
+
+    @Test
+    void sharedAuthenticationToleratesFrameworkSetters() {
+        JwtAuthentication auth = new JwtAuthentication(User.builder().id(3L).username("setters").role("user").build());
+        auth.setDetails(new Object());
+        assertThat(auth.getDetails()).isNull();
+        assertThatThrownBy(() -> auth.setAuthenticated(true)).isInstanceOf(IllegalArgumentException.class);
+        auth.setAuthenticated(false);
+        assertThat(auth.isAuthenticated()).isFalse();
+    }
+
+    @Test
+    void cacheRebuildsAnAuthenticationMarkedUntrusted() {
+        PrincipalCache cache = new PrincipalCache(username -> User.builder().id(4L).username(username).role("user").active(true).build(),
+                new SimpleMeterRegistry(), 100, 60_000);
+        JwtAuthentication first = cache.load("untrusted");
+        first.setAuthenticated(false);
+        assertThat(cache.load("untrusted").isAuthenticated()).isTrue();
+    }
+
+    private interface Work {
+        int run();
+    }
+
+    /** Bytes allocated by this thread while running {@code work}, after a warm-up run so the JIT has settled. */
+    private static long allocatedBy(Work work) {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        long tid = Thread.currentThread().getId();
+        int sink = work.run();
+        long before = THREADS.getThreadAllocatedBytes(tid);
+        sink += work.run();
+        long after = THREADS.getThreadAllocatedBytes(tid);
+        assertThat(sink).isPositive();
+        return after - before;
+    }
+}
@@ -0,0 +1,73 @@
+package com.crm.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+
+    @Test
+    void neverMissesAnAddedEntry() {
+        BloomFilter bloom = new BloomFilter(ENTRIES);
+        List<String> added = jtis(ENTRIES);
+        added.forEach(bloom::add);
+
+        assertThat(added).allMatch(bloom::mightContain);
+    }
+
+    @Test
+    void neverMissesAnEntryAddedConcurrently() throws Exception {
+        BloomFilter bloom = new BloomFilter(ENTRIES);
+        List<String> added = jtis(ENTRIES);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                done.add(pool.submit(() -> {
+                    for (int i = first; i < added.size(); i += threads) bloom.add(added.get(i));
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(added).allMatch(bloom::mightContain);
+    }
+
+    @Test
+    void keepsFalsePositivesUnderOnePercentAtTheSizedLoad() {
+        BloomFilter bloom = new BloomFilter(ENTRIES);
+        jtis(ENTRIES).forEach(bloom::add);
+
+        long falsePositives = jtis(ENTRIES).stream().filter(bloom::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(ENTRIES / 100);
+    }
+
+    @Test
+    void worksWhenSizedForNothing() {
+        BloomFilter bloom = new BloomFilter(0);
+        List<String> added = jtis(1_000);
+        added.forEach(bloom::add);
+
+        assertThat(added).allMatch(bloom::mightContain);
+    }
+
+    private static List<String> jtis(int count) {
+        List<String> jtis = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) jtis.add(UUID.randomUUID().toString());
+        return jtis;
+    }
+}
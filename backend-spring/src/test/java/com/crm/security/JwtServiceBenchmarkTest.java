@@ -0,0 +1,76 @@
+package com.crm.security;
+
+import com.crm.domain.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Microbenchmark for {@link JwtService#parseClaims}: full verification (claims cache disabled) against a cache
+ * hit, which still hashes the token. Best of several timed rounds after a warm-up; prints ns/op.
+ */
+class JwtServiceBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 5;
+    private static final int OPS = 20_000;
+
+    private static JwtService service(int claimsCacheSize) {
+        JwtProperties props = new JwtProperties();
+        props.setSecret("benchmark-secret-benchmark-secret-benchmark-secret");
+        props.setClaimsCacheSize(claimsCacheSize);
+        return new JwtService(props, new SimpleMeterRegistry());
+    }
+
+    private static User user() {
+        return User.builder().id(7L).username("bench").email("bench@example.com").role("admin").tokenVersion(0).build();
+    }
+
+    @Test
+    void cachedParseIsFasterThanFullVerification() {
+        JwtService uncached = service(0);
+        JwtService cached = service(1_000);
+        String token = cached.buildAccessToken(user());
+
+        double fullNs = nanosPerOp(uncached, token);
+        double hitNs = nanosPerOp(cached, token);
+        System.out.printf("parseClaims: full verification %.0f ns/op, cache hit %.0f ns/op (%.1fx)%n",
+                fullNs, hitNs, fullNs / hitNs);
+        assertThat(hitNs).isLessThan(fullNs);
+    }
+
+    @Test
+    void alteredTokenMissesTheCacheAndFailsVerification() {
+        JwtService service = service(1_000);
+        String token = service.buildAccessToken(user());
+        assertThat(service.parseClaims(token).getSubject()).isEqualTo("bench");
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThatThrownBy(() -> service.parseClaims(tampered)).isInstanceOf(Exception.class);
+    }
+
+    private static double nanosPerOp(JwtService service, String token) {
+        ToIntFunction<Integer> run = ops -> {
+            int sink = 0;
+            for (int i = 0; i < ops; i++) {
+                Claims claims = service.parseClaims(token);
+                sink += claims.getSubject().length();
+            }
+            return sink;
+        };
+        run.applyAsInt(WARMUP);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            int sink = run.applyAsInt(OPS);
+            best = Math.min(best, System.nanoTime() - start);
+            assertThat(sink).isPositive();
+        }
+        return (double) best / OPS;
+    }
+}
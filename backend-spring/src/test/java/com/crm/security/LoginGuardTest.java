@@ -0,0 +1,83 @@
+package com.crm.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginGuardTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoginGuard guard;
+
+    @AfterEach
+    void tearDown() {
+        if (guard != null) guard.shutdown();
+    }
+
+    @Test
+    void limitsAttemptsPerEmailIgnoringCase() {
+        guard = new LoginGuard(registry, 1, 10, 3, 0.001, 1000, 1000);
+        guard.admit("Ana@example.com", "10.0.0.1");
+        guard.admit("ana@example.com", "10.0.0.2");
+        guard.admit("ANA@EXAMPLE.COM", "10.0.0.3");
+
+        assertStatus(() -> guard.admit("ana@example.com", "10.0.0.4"), HttpStatus.TOO_MANY_REQUESTS);
+        guard.admit("bo@example.com", "10.0.0.4");
+        assertThat(registry.get("login.rejected").tag("reason", "email").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsAttemptsPerAddressAcrossEmails() {
+        guard = new LoginGuard(registry, 1, 10, 1000, 1000, 2, 0.001);
+        guard.admit("a@example.com", "10.0.0.1");
+        guard.admit("b@example.com", "10.0.0.1");
+
+        assertStatus(() -> guard.admit("c@example.com", "10.0.0.1"), HttpStatus.TOO_MANY_REQUESTS);
+        guard.admit("c@example.com", "10.0.0.2");
+        guard.admit("d@example.com", null);
+        assertThat(registry.get("login.rejected").tag("reason", "address").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hashesOffTheCallerAndRefusesWhenTheQueueIsFull() throws Exception {
+        guard = new LoginGuard(registry, 1, 1, 10, 1, 10, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = guard.hash(() -> {
+            await(release);
+            return Thread.currentThread().getName();
+        });
+        CompletableFuture<String> queued = guard.hash(() -> "queued");
+        try {
+            // The first task went straight to the only worker; the second fills the one queue slot.
+            assertStatus(() -> guard.hash(() -> "refused"), HttpStatus.SERVICE_UNAVAILABLE);
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("login-hash-");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(registry.get("login.rejected").tag("reason", "overload").counter().count()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertStatus(Runnable call, HttpStatus status) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+}
@@ -0,0 +1,66 @@
+package com.crm.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketsTest {
+
+    /** Slow enough that nothing refills while a test runs. */
+    private static final double NO_REFILL = 0.001;
+
+    @Test
+    void allowsABurstOfCapacityThenRefuses() {
+        TokenBuckets<String> buckets = new TokenBuckets<>(5, 1, 100);
+        for (int i = 0; i < 5; i++) assertThat(buckets.tryAcquire("a")).isTrue();
+
+        assertThat(buckets.tryAcquire("a")).isFalse();
+        assertThat(buckets.acquire("a")).isPositive().isLessThanOrEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBuckets<String> buckets = new TokenBuckets<>(2, 10, 100);
+        assertThat(buckets.tryAcquire("a")).isTrue();
+        assertThat(buckets.tryAcquire("a")).isTrue();
+        assertThat(buckets.tryAcquire("a")).isFalse();
+
+        Thread.sleep(150);
+
+        assertThat(buckets.tryAcquire("a")).isTrue();
+    }
+
+    @Test
+    void keepsKeysIndependent() {
+        TokenBuckets<String> buckets = new TokenBuckets<>(1, NO_REFILL, 100);
+        assertThat(buckets.tryAcquire("a")).isTrue();
+        assertThat(buckets.tryAcquire("a")).isFalse();
+
+        assertThat(buckets.tryAcquire("b")).isTrue();
+    }
+
+    @Test
+    void prunesFullBucketsFirst() throws InterruptedException {
+        TokenBuckets<String> buckets = new TokenBuckets<>(1, 1000, 10);
+        for (int i = 0; i < 10; i++) buckets.tryAcquire("key-" + i);
+        Thread.sleep(20);
+
+        buckets.tryAcquire("new");
+
+        assertThat(buckets.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsDrainedBucketsWhenNewKeysAreSprayed() {
+        TokenBuckets<String> buckets = new TokenBuckets<>(2, NO_REFILL, 20);
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire("drained-" + i);
+            buckets.tryAcquire("drained-" + i);
+        }
+
+        for (int i = 0; i < 500; i++) buckets.tryAcquire("spray-" + i);
+
+        assertThat(buckets.size()).isLessThanOrEqualTo(20);
+        for (int i = 0; i < 5; i++) assertThat(buckets.tryAcquire("drained-" + i)).isFalse();
+    }
+}
@@ -0,0 +1,113 @@
+package com.crm.security;
+
+import com.crm.domain.RevokedToken;
+import com.crm.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** The denylist may answer "revoked" only for revoked tokens, and must never answer "not revoked" for one. */
+class TokenDenylistTest {
+
+    private final List<RevokedToken> rows = new CopyOnWriteArrayList<>();
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        when(repository.save(any(RevokedToken.class))).thenAnswer(call -> {
+            rows.add(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfter(any())).thenAnswer(call -> List.copyOf(rows));
+        denylist = new TokenDenylist(repository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsRevokedTokensAndOnlyThose() {
+        List<String> revoked = jtis(10_000);
+        revoked.forEach(jti -> denylist.revoke(jti, 1L, inAnHour()));
+
+        assertThat(revoked).allMatch(denylist::isRevoked);
+        assertThat(jtis(10_000)).noneMatch(denylist::isRevoked);
+        assertThat(denylist.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void ignoresTokensThatHaveAlreadyExpired() {
+        denylist.revoke("expired", 1L, Instant.now().minusSeconds(1));
+
+        assertThat(denylist.isRevoked("expired")).isFalse();
+    }
+
+    @Test
+    void keepsEveryRevocationAcrossAReload() {
+        List<String> local = jtis(1_000);
+        local.forEach(jti -> denylist.revoke(jti, 1L, inAnHour()));
+        // Revoked by another instance: only in the table.
+        String remote = UUID.randomUUID().toString();
+        rows.add(RevokedToken.builder().jti(remote).userId(2L).expiresAt(LocalDateTime.now().plusHours(1)).build());
+        assertThat(denylist.isRevoked(remote)).isFalse();
+
+        denylist.reload();
+
+        assertThat(local).allMatch(denylist::isRevoked);
+        assertThat(denylist.isRevoked(remote)).isTrue();
+    }
+
+    @Test
+    void neverMissesARevocationWhileReloadsSwapTheFilter() throws Exception {
+        List<String> revoked = new CopyOnWriteArrayList<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> missed = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                for (String jti : revoked) {
+                    if (!denylist.isRevoked(jti)) missed.compareAndSet(null, jti);
+                }
+            }
+        });
+        Thread reloader = new Thread(() -> {
+            while (running.get()) denylist.reload();
+        });
+        reader.start();
+        reloader.start();
+        try {
+            for (String jti : jtis(5_000)) {
+                denylist.revoke(jti, 1L, inAnHour());
+                revoked.add(jti);
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+            reloader.join();
+        }
+
+        assertThat(missed.get()).isNull();
+        assertThat(revoked).allMatch(denylist::isRevoked);
+    }
+
+    private static Instant inAnHour() {
+        return Instant.now().plusSeconds(3600);
+    }
+
+    private static List<String> jtis(int count) {
+        List<String> jtis = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) jtis.add(UUID.randomUUID().toString());
+        return jtis;
+    }
+}
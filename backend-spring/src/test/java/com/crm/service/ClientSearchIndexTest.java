@@ -0,0 +1,65 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Ranking, term matching and assignee visibility of the in-memory client index. */
+class ClientSearchIndexTest {
+
+    private ClientSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientSearchIndex(null);
+        index.put(1L, 10L, "Acme", "Acme Holdings", "info@acme.com");
+        index.put(2L, 10L, "Acmeware", null, null);
+        index.put(3L, 20L, "Bigacme", null, null);
+        index.put(4L, 20L, "Acne Labs", null, null);
+        index.put(5L, 30L, "Globex", "Initech", "sales@globex.com");
+    }
+
+    @Test
+    void ranksExactThenPrefixThenSubstringThenTypo() {
+        assertThat(index.search("acme", null, 10)).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void breaksTiesByNewestId() {
+        index.put(6L, 10L, "Acme", null, null);
+
+        assertThat(index.search("acme", null, 10)).startsWith(6L, 1L);
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertThat(index.search("acme holdings", null, 10)).containsExactly(1L);
+        assertThat(index.search("globex initech", null, 10)).containsExactly(5L);
+        assertThat(index.search("acme initech", null, 10)).isEmpty();
+    }
+
+    @Test
+    void onlyReturnsClientsOfTheGivenAssignee() {
+        assertThat(index.search("acme", 10L, 10)).containsExactly(1L, 2L);
+        assertThat(index.search("acme", 20L, 10)).containsExactly(3L, 4L);
+        assertThat(index.search("acme", 99L, 10)).isEmpty();
+    }
+
+    @Test
+    void reindexesOnPutAndForgetsOnRemove() {
+        index.put(1L, 30L, "Umbrella", null, null);
+        assertThat(index.search("acme", null, 10)).containsExactly(2L, 3L, 4L);
+        assertThat(index.search("umbrella", 30L, 10)).containsExactly(1L);
+        assertThat(index.search("umbrella", 10L, 10)).isEmpty();
+
+        index.remove(1L);
+        assertThat(index.search("umbrella", null, 10)).isEmpty();
+    }
+
+    @Test
+    void truncatesToTheLimitAndIgnoresBlankQueries() {
+        assertThat(index.search("acme", null, 2)).containsExactly(1L, 2L);
+        assertThat(index.search("  ", null, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,48 @@
+package com.crm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsItsParts() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 4, 5, 6, 7, 123_456_000);
+        String cursor = KeysetCursor.encode("-created_at", createdAt, 42L);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        String[] parts = KeysetCursor.decode(cursor, 3);
+        assertThat(parts).containsExactly("-created_at", createdAt.toString(), "42");
+        assertThat(LocalDateTime.parse(parts[1])).isEqualTo(createdAt);
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(LocalDate.of(2026, 1, 31), ""), 2)).containsExactly("2026-01-31", "");
+    }
+
+    @Test
+    void rejectsMalformedCursorsWith400() {
+        assertBadRequest(() -> KeysetCursor.decode("not base64!", 2));
+        assertBadRequest(() -> KeysetCursor.decode(KeysetCursor.encode("a", "b", "c"), 2));
+        assertBadRequest(() -> KeysetCursor.decode(KeysetCursor.encode("a"), 2));
+    }
+
+    @Test
+    void clampsThePageSize() {
+        assertThat(KeysetCursor.pageSize(null)).isEqualTo(KeysetCursor.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetCursor.pageSize(0)).isEqualTo(KeysetCursor.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetCursor.pageSize(-5)).isEqualTo(KeysetCursor.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetCursor.pageSize(7)).isEqualTo(7);
+        assertThat(KeysetCursor.pageSize(10_000)).isEqualTo(KeysetCursor.MAX_PAGE_SIZE);
+    }
+
+    private static void assertBadRequest(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
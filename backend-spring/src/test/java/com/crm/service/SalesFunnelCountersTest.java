@@ -0,0 +1,97 @@
+package com.crm.service;
+
+import com.crm.domain.User;
+import com.crm.dto.ClientDto;
+import com.crm.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Counters kept by deltas must match what the periodic GROUP BY reconcile computes from the clients table. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:funneltest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("dev")
+class SalesFunnelCountersTest {
+
+    private static final List<String> STATUSES = List.of("Prospect", "Negotiation", "Closed", "Lost");
+
+    @Autowired
+    private SalesService salesService;
+    @Autowired
+    private SalesFunnelCounters salesFunnelCounters;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deltasMatchTheReconciledCounters() throws Exception {
+        User admin = user("funnel.admin", "admin");
+        List<User> assignees = List.of(user("funnel.a", "user"), user("funnel.b", "user"));
+        List<Long> clients = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ClientDto dto = ClientDto.builder().clientName("Client " + i).email("funnel" + i + "@example.com")
+                    .status(STATUSES.get(i % STATUSES.size())).dealValue(BigDecimal.valueOf(1000L * i))
+                    .entryDate(LocalDate.of(2026, 1, 1).plusDays(i))
+                    .closedDate(i % STATUSES.size() == 2 ? LocalDate.of(2026, 3, 1) : null)
+                    .assignedTo(i % 3 == 2 ? null : assignees.get(i % 2).getId()).build();
+            clients.add(salesService.createClient(dto, admin).getId());
+        }
+        salesService.updateClient(clients.get(0), ClientDto.builder().status("Closed").dealValue(new BigDecimal("2500"))
+                .closedDate(LocalDate.of(2026, 2, 1)).assignedTo(assignees.get(1).getId()).build(), admin);
+        salesService.updateClientStatus(clients.get(2), "Lost", null, admin);
+        salesService.deleteClient(clients.get(3), admin);
+        assertMatchesReconcile(admin, assignees);
+
+        // Concurrent writers on the same few rows: each must see the state the previous one committed.
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                done.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 25; i++) {
+                        Long id = clients.get(4 + random.nextInt(3));
+                        if (random.nextBoolean()) {
+                            salesService.updateClientStatus(id, STATUSES.get(random.nextInt(STATUSES.size())),
+                                    BigDecimal.valueOf(random.nextInt(1, 10_000)), admin);
+                        } else {
+                            salesService.updateClient(id, ClientDto.builder()
+                                    .assignedTo(assignees.get(random.nextInt(2)).getId())
+                                    .dealValue(BigDecimal.valueOf(random.nextInt(1, 10_000))).build(), admin);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertMatchesReconcile(admin, assignees);
+    }
+
+    private void assertMatchesReconcile(User admin, List<User> assignees) {
+        Map<String, Object> overall = salesService.analytics(admin, null);
+        List<Map<String, Object>> perAssignee = assignees.stream().map(u -> salesService.analytics(admin, u.getId())).toList();
+
+        salesFunnelCounters.verify();
+
+        assertThat(salesService.analytics(admin, null)).isEqualTo(overall);
+        assertThat(assignees.stream().map(u -> salesService.analytics(admin, u.getId())).toList()).isEqualTo(perAssignee);
+    }
+
+    private User user(String username, String role) {
+        return userRepository.save(User.builder().username(username).email(username + "@example.com").password("x").role(role).build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.crm.service;
+
+import com.crm.domain.User;
+import com.crm.dto.TaskCreateDto;
+import com.crm.dto.TaskUpdateDto;
+import com.crm.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Counters kept by deltas must match what the periodic GROUP BY reconcile computes from the tasks table. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:boardtest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("dev")
+class TaskBoardCountersTest {
+
+    private static final List<String> STATUSES = List.of("pending", "in_progress", "completed");
+    private static final List<String> PRIORITIES = List.of("low", "medium", "high", "urgent");
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskBoardCounters taskBoardCounters;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deltasMatchTheReconciledCounters() throws Exception {
+        User admin = user("board.admin", "admin");
+        List<User> assignees = List.of(user("board.a", "user"), user("board.b", "user"));
+        LocalDate today = LocalDate.now();
+        List<Long> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            TaskCreateDto dto = new TaskCreateDto();
+            dto.setTitle("Task " + i);
+            dto.setStatus(STATUSES.get(i % STATUSES.size()));
+            dto.setPriority(PRIORITIES.get(i % PRIORITIES.size()));
+            dto.setAssignedTo(assignees.get(i % 2).getId());
+            // Past deadlines make open tasks overdue from the start.
+            dto.setDeadline(i % 4 == 3 ? null : today.plusDays(i % 2 == 0 ? -3 : 5));
+            tasks.add(taskService.createTask(dto, admin).getId());
+        }
+        TaskUpdateDto reopen = new TaskUpdateDto();
+        reopen.setStatus("in_progress");
+        reopen.setDeadline(today.minusDays(1));
+        taskService.updateTask(tasks.get(2), reopen, admin);
+        TaskUpdateDto move = new TaskUpdateDto();
+        move.setAssignedTo(assignees.get(1).getId());
+        move.setPriority("urgent");
+        move.setDeadline(today.plusDays(30));
+        taskService.updateTask(tasks.get(0), move, admin);
+        taskService.deleteTask(tasks.get(5), admin);
+        assertMatchesReconcile(admin, assignees);
+
+        // Concurrent writers on the same few rows: each must see the state the previous one committed.
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                done.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 25; i++) {
+                        TaskUpdateDto dto = new TaskUpdateDto();
+                        dto.setStatus(STATUSES.get(random.nextInt(STATUSES.size())));
+                        dto.setPriority(PRIORITIES.get(random.nextInt(PRIORITIES.size())));
+                        dto.setAssignedTo(assignees.get(random.nextInt(2)).getId());
+                        dto.setDeadline(today.plusDays(random.nextInt(-5, 5)));
+                        taskService.updateTask(tasks.get(6 + random.nextInt(3)), dto, admin);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertMatchesReconcile(admin, assignees);
+    }
+
+    private void assertMatchesReconcile(User admin, List<User> assignees) {
+        Map<String, Object> overall = taskService.summary(admin, null);
+        List<Map<String, Object>> perAssignee = assignees.stream().map(u -> taskService.summary(admin, u.getId())).toList();
+
+        taskBoardCounters.verify();
+
+        assertThat(taskService.summary(admin, null)).isEqualTo(overall);
+        assertThat(assignees.stream().map(u -> taskService.summary(admin, u.getId())).toList()).isEqualTo(perAssignee);
+    }
+
+    private User user(String username, String role) {
+        return userRepository.save(User.builder().username(username).email(username + "@example.com").password("x").role(role).build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.crm.service;
+
+import com.crm.domain.Task;
+import com.crm.domain.User;
+import com.crm.dto.CursorPage;
+import com.crm.dto.TaskDto;
+import com.crm.repository.TaskOrder;
+import com.crm.repository.TaskRepository;
+import com.crm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Keyset paging of the task list: every sort order round-trips its cursor, and malformed cursors are 400s. */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:taskcursortest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("dev")
+class TaskServiceCursorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private final List<Task> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String name = "cursor." + System.nanoTime();
+        owner = userRepository.save(User.builder().username(name).email(name + "@example.com").password("x").role("user").build());
+        // Repeated keys and missing deadlines, so the id tie-break and NO_DEADLINE are exercised.
+        LocalDate[] deadlines = {LocalDate.of(2026, 2, 1), null, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 15),
+                null, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 2, 1)};
+        int[] minutes = {0, 5, 5, 10, 0, 20, 5};
+        tasks.clear();
+        for (int i = 0; i < deadlines.length; i++) {
+            tasks.add(taskRepository.save(Task.builder().title("t" + i).assignedTo(owner).createdBy(owner)
+                    .deadline(deadlines[i]).createdAt(T0.plusMinutes(minutes[i])).build()));
+        }
+    }
+
+    @Test
+    void pagesThroughEveryOrderWithoutGapsOrRepeats() {
+        for (TaskOrder order : TaskOrder.values()) {
+            Comparator<Task> byKey = order == TaskOrder.NEWEST || order == TaskOrder.OLDEST
+                    ? Comparator.comparing(Task::getCreatedAt) : Comparator.comparing(t -> (LocalDate) order.keyOf(t));
+            Comparator<Task> expected = byKey.thenComparing(Task::getId);
+            if (order == TaskOrder.NEWEST || order == TaskOrder.DEADLINE_DESC) expected = expected.reversed();
+
+            assertThat(pageAll(order.param(), 2)).as(order.name())
+                    .containsExactlyElementsOf(tasks.stream().sorted(expected).map(Task::getId).toList());
+        }
+    }
+
+    @Test
+    void roundTripsKeysThroughTheCursorText() {
+        for (TaskOrder order : TaskOrder.values()) {
+            for (Task task : tasks) {
+                assertThat(order.parseKey(String.valueOf(order.keyOf(task)))).isEqualTo(order.keyOf(task));
+            }
+        }
+        assertThat(TaskOrder.fromParam(null)).isEqualTo(TaskOrder.NEWEST);
+        assertThat(TaskOrder.fromParam(" deadline ")).isEqualTo(TaskOrder.DEADLINE);
+        assertThat(TaskOrder.fromParam("priority")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursorsWith400() {
+        assertBadRequest("deadline", "%%%");
+        assertBadRequest("deadline", KeysetCursor.encode("deadline", "2026-02-01"));
+        assertBadRequest("-created_at", KeysetCursor.encode("deadline", "2026-02-01", 1));
+        assertBadRequest("deadline", KeysetCursor.encode("deadline", "yesterday", 1));
+        assertBadRequest("deadline", KeysetCursor.encode("deadline", "2026-02-01", "one"));
+        assertBadRequest("created_at", KeysetCursor.encode("created_at", "2026-02-01", 1));
+        assertBadRequest("priority", null);
+    }
+
+    private List<Long> pageAll(String sort, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TaskDto> page = list(sort, cursor, limit);
+            assertThat(page.getResults()).hasSizeLessThanOrEqualTo(limit);
+            page.getResults().forEach(t -> ids.add(t.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private CursorPage<TaskDto> list(String sort, String cursor, int limit) {
+        return taskService.listTasks(owner, null, null, null, null, null, null, null, sort, false, cursor, limit);
+    }
+
+    private void assertBadRequest(String sort, String cursor) {
+        assertThatThrownBy(() -> list(sort, cursor, 2))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
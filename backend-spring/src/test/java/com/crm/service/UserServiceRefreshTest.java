@@ -0,0 +1,71 @@
+package com.crm.service;
+
+import com.crm.domain.User;
+import com.crm.dto.AuthResponse;
+import com.crm.repository.UserRepository;
+import com.crm.security.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Refresh rotation against the refresh_tokens table (jwt.refresh-store=database). */
+@SpringBootTest(properties = {"jwt.refresh-store=database", "spring.datasource.url=jdbc:h2:mem:refreshtest;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("dev")
+class UserServiceRefreshTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void rotatesThroughTheDatabaseStoreAndRevokesTheFamilyOnReuse() {
+        User user = userRepository.save(User.builder()
+                .username("refresh.test")
+                .email("refresh.test@example.com")
+                .password("x")
+                .role("user")
+                .build());
+        String first = refreshTokenService.issue(user);
+
+        AuthResponse second = userService.refresh(first);
+        assertThat(second.getAccess()).isNotBlank();
+        AuthResponse third = userService.refresh(second.getRefresh());
+        assertThat(third.getRefresh()).isNotEqualTo(second.getRefresh());
+
+        assertThatThrownBy(() -> userService.refresh(first))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        assertThatThrownBy(() -> userService.refresh(third.getRefresh()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    @Test
+    void doesNotIssueASuccessorIntoAFamilyRevokedMidRotation() {
+        User user = userRepository.save(User.builder()
+                .username("refresh.race")
+                .email("refresh.race@example.com")
+                .password("x")
+                .role("user")
+                .build());
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenService.issue(user));
+
+        // A replay of the same token lands between consume and save.
+        refreshTokenService.revokeFamily(rotation.family());
+
+        assertThatThrownBy(() -> refreshTokenService.issueSuccessor(user, rotation))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        assertThat(refreshTokenService.issueSuccessor(user, refreshTokenService.rotate(refreshTokenService.issue(user))))
+                .isNotBlank();
+    }
+}
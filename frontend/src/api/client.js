@@ -35,32 +35,54 @@ const wrap = (p) =>
     throw err;
   });
 
+let refreshing = null;
+
+/** Trades the stored refresh token for a new pair; concurrent callers share one request. */
+const refreshTokens = () => {
+  if (!refreshing) {
+    const refresh = localStorage.getItem('crmRefreshToken');
+    refreshing = (
+      refresh
+        ? fetch(`${API_BASE}/token/refresh`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refresh }),
+          })
+            .then((res) => (res.ok ? res.json() : null))
+            .then((data) => {
+              if (!data?.access) return false;
+              localStorage.setItem('crmToken', data.access);
+              localStorage.setItem('crmRefreshToken', data.refresh);
+              return true;
+            })
+            .catch(() => false)
+        : Promise.resolve(false)
+    ).finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
+};
+
+/** Sends the request; on 401 refreshes the access token once and retries before giving up. */
+const request = async (path, init = {}) => {
+  const send = () => fetch(`${API_BASE}${path}`, { ...init, headers: getAuthHeaders() });
+  let res = await send();
+  if (res.status === 401 && (await refreshTokens())) res = await send();
+  return handleResponse(res);
+};
+
 export const api = {
-  get: (path) => wrap(fetch(`${API_BASE}${path}`, { headers: getAuthHeaders() }).then(handleResponse)),
-  post: (path, data) =>
-    wrap(
-      fetch(`${API_BASE}${path}`, {
-        method: 'POST',
-        headers: getAuthHeaders(),
-        body: JSON.stringify(data),
-      }).then(handleResponse)
-    ),
-  put: (path, data) =>
-    wrap(
-      fetch(`${API_BASE}${path}`, {
-        method: 'PUT',
-        headers: getAuthHeaders(),
-        body: JSON.stringify(data),
-      }).then(handleResponse)
-    ),
-  patch: (path, data) =>
-    wrap(
-      fetch(`${API_BASE}${path}`, {
-        method: 'PATCH',
-        headers: getAuthHeaders(),
-        body: JSON.stringify(data),
-      }).then(handleResponse)
-    ),
-  delete: (path) =>
-    wrap(fetch(`${API_BASE}${path}`, { method: 'DELETE', headers: getAuthHeaders() }).then(handleResponse)),
+  get: (path) => wrap(request(path)),
+  post: (path, data) => wrap(request(path, { method: 'POST', body: JSON.stringify(data) })),
+  put: (path, data) => wrap(request(path, { method: 'PUT', body: JSON.stringify(data) })),
+  patch: (path, data) => wrap(request(path, { method: 'PATCH', body: JSON.stringify(data) })),
+  /** One page of a paged list endpoint as `{ results, next_cursor }`; pass the previous `next_cursor` for the next page. */
+  getPage: async (path, cursor = null) => {
+    const sep = path.includes('?') ? '&' : '?';
+    const page = await api.get(cursor ? `${path}${sep}cursor=${encodeURIComponent(cursor)}` : path);
+    if (Array.isArray(page)) return { results: page, next_cursor: null };
+    return { results: page?.results || [], next_cursor: page?.next_cursor || null };
+  },
+  delete: (path) => wrap(request(path, { method: 'DELETE' })),
 };
@@ -0,0 +1,58 @@
+import { useCallback, useEffect, useRef, useState } from 'react';
+import { api } from './client';
+
+/**
+ * Loads the first page of a paged list endpoint and fetches further pages only when `loadMore` is called.
+ * `map` is applied to each row as it arrives; rows already in the list (by id) are not added twice.
+ */
+export const usePagedList = (path, map) => {
+  const mapRef = useRef(map);
+  mapRef.current = map;
+  const [items, setItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [error, setError] = useState('');
+
+  const convert = (rows) => (mapRef.current ? rows.map(mapRef.current) : rows);
+
+  const reload = useCallback(async () => {
+    setLoading(true);
+    setError('');
+    try {
+      const page = await api.getPage(path);
+      setItems(convert(page.results));
+      setNextCursor(page.next_cursor);
+    } catch (err) {
+      setItems([]);
+      setNextCursor(null);
+      setError(err.message || 'Failed to load');
+    } finally {
+      setLoading(false);
+    }
+  }, [path]);
+
+  const loadMore = useCallback(async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await api.getPage(path, nextCursor);
+      const rows = convert(page.results);
+      setItems((prev) => {
+        const seen = new Set(prev.map((r) => r.id));
+        return [...prev, ...rows.filter((r) => !seen.has(r.id))];
+      });
+      setNextCursor(page.next_cursor);
+    } catch (err) {
+      setError(err.message || 'Failed to load more');
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [path, nextCursor, loadingMore]);
+
+  useEffect(() => {
+    reload();
+  }, [reload]);
+
+  return { items, setItems, loading, loadingMore, error, hasMore: Boolean(nextCursor), loadMore, reload };
+};
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { api } from '../../api/client';
+import { usePagedList } from '../../api/usePagedList';
 
 // --- Sub-Components ---
 const SummaryCard = ({ title, value, color }) => (
@@ -9,9 +10,15 @@ const SummaryCard = ({ title, value, color }) => (
   </div>
 );
 
-const EmployeePerformanceView = ({ userId, onBack, users = [], salesLeads = [] }) => {
+const EmployeePerformanceView = ({ userId, onBack, users = [] }) => {
   const user = users.find(u => u.id === userId);
-  const userLeads = salesLeads.filter(d => d.userId === userId);
+  const [funnel, setFunnel] = useState(null);
+
+  useEffect(() => {
+    api.get(`/sales/clients/analytics?assigned_to=${userId}`)
+      .then((data) => setFunnel(data?.conversion_funnel || {}))
+      .catch(() => setFunnel({}));
+  }, [userId]);
 
   if (!user) {
     return (
@@ -22,9 +29,7 @@ const EmployeePerformanceView = ({ userId, onBack, users = [], salesLeads = [] }
     );
   }
 
-  const closedLeads = userLeads.filter(d => d.status === 'Closed');
-  const lostLeads = userLeads.filter(d => d.status === 'Lost');
-  const totalLeads = userLeads.length;
+  const count = (key) => (funnel ? funnel[key] ?? 0 : '…');
 
   return (
     <div className="performance-view">
@@ -33,15 +38,15 @@ const EmployeePerformanceView = ({ userId, onBack, users = [], salesLeads = [] }
       <div className="kpi-grid">
         <div className="kpi-card">
           <h4>Total Leads</h4>
-          <p>{totalLeads}</p>
+          <p>{count('total_leads')}</p>
         </div>
         <div className="kpi-card">
           <h4>Closed Leads</h4>
-          <p>{closedLeads.length}</p>
+          <p>{count('closed')}</p>
         </div>
         <div className="kpi-card">
           <h4>Lost Leads</h4>
-          <p>{lostLeads.length}</p>
+          <p>{count('lost')}</p>
         </div>
       </div>
     </div>
@@ -52,63 +57,22 @@ const EmployeePerformanceView = ({ userId, onBack, users = [], salesLeads = [] }
 const AdminSales = () => {
   const [activeTab, setActiveTab] = useState('clients');
   const [selectedUserId, setSelectedUserId] = useState(null);
-  const [salesLeads, setSalesLeads] = useState([]);
   const [clientActivities, setClientActivities] = useState({});
-  const [clientInfoData, setClientInfoData] = useState({});
+  const [funnel, setFunnel] = useState({});
   const [users, setUsers] = useState([]);
   const [loading, setLoading] = useState(true);
+  const clients = usePagedList('/sales/clients');
 
   useEffect(() => {
     const load = async () => {
       setLoading(true);
       try {
-        const [clientsRes, usersRes, activitiesRes] = await Promise.allSettled([
-          api.get('/sales/clients'),
+        const [usersRes, analyticsRes] = await Promise.allSettled([
           api.get('/accounts/users'),
-          api.get('/sales/activities'),
+          api.get('/sales/clients/analytics'),
         ]);
-        const clientsList = clientsRes.status === 'fulfilled' && Array.isArray(clientsRes.value) ? clientsRes.value : [];
         const usersList = usersRes.status === 'fulfilled' && Array.isArray(usersRes.value) ? usersRes.value : [];
-        const activitiesList = activitiesRes.status === 'fulfilled' && Array.isArray(activitiesRes.value) ? activitiesRes.value : [];
-
-        const leads = clientsList.map((c) => ({
-          id: c.id,
-          client: c.client_name || c.clientName,
-          status: c.status || 'Prospect',
-          date: (c.entry_date || c.entryDate || '').toString(),
-          userId: c.assigned_to || (c.assigned_to_detail?.id),
-        }));
-        setSalesLeads(leads);
-
-        const byClient = {};
-        activitiesList.forEach((a) => {
-          const cid = a.client ?? a.client_id;
-          if (!byClient[cid]) byClient[cid] = [];
-          byClient[cid].push({
-            type: a.activity_type || 'Activity',
-            detail: a.notes || a.detail || '',
-            date: (a.date || a.created_at || '').toString(),
-          });
-        });
-        setClientActivities(byClient);
-
-        const infoMap = {};
-        clientsList.forEach((c) => {
-          const name = c.client_name || c.clientName;
-          const assignee = c.assigned_to_detail
-            ? [c.assigned_to_detail.first_name, c.assigned_to_detail.last_name].filter(Boolean).join(' ') || c.assigned_to_detail.username
-            : '';
-          infoMap[name] = {
-            clientName: name,
-            companyName: c.company_name || c.companyName,
-            address: c.address || '',
-            contactNumber: c.contact_no || c.contactNo || '',
-            email: c.email || '',
-            manager: assignee,
-          };
-        });
-        setClientInfoData(infoMap);
-
+        setFunnel(analyticsRes.status === 'fulfilled' ? analyticsRes.value?.conversion_funnel || {} : {});
         setUsers(usersList.map((u) => ({
           id: u.id,
           name: [u.first_name, u.last_name].filter(Boolean).join(' ') || u.username,
@@ -116,7 +80,6 @@ const AdminSales = () => {
           email: u.email,
         })));
       } catch {
-        setSalesLeads([]);
         setUsers([]);
       } finally {
         setLoading(false);
@@ -125,6 +88,48 @@ const AdminSales = () => {
     load();
   }, []);
 
+  const salesLeads = clients.items.map((c) => ({
+    id: c.id,
+    client: c.client_name || c.clientName,
+    status: c.status || 'Prospect',
+    date: (c.entry_date || c.entryDate || '').toString(),
+    userId: c.assigned_to || (c.assigned_to_detail?.id),
+  }));
+
+  const clientInfoData = {};
+  clients.items.forEach((c) => {
+    const name = c.client_name || c.clientName;
+    const assignee = c.assigned_to_detail
+      ? [c.assigned_to_detail.first_name, c.assigned_to_detail.last_name].filter(Boolean).join(' ') || c.assigned_to_detail.username
+      : '';
+    clientInfoData[name] = {
+      clientName: name,
+      companyName: c.company_name || c.companyName,
+      address: c.address || '',
+      contactNumber: c.contact_no || c.contactNo || '',
+      email: c.email || '',
+      manager: assignee,
+    };
+  });
+
+  /** Activities are fetched per client when its details are first opened. */
+  const loadActivities = async (clientId) => {
+    if (clientActivities[clientId]) return;
+    try {
+      const page = await api.getPage(`/sales/activities?client=${clientId}`);
+      setClientActivities((prev) => ({
+        ...prev,
+        [clientId]: page.results.map((a) => ({
+          type: a.activity_type || 'Activity',
+          detail: a.notes || a.detail || '',
+          date: (a.date || a.created_at || '').toString(),
+        })),
+      }));
+    } catch {
+      setClientActivities((prev) => ({ ...prev, [clientId]: [] }));
+    }
+  };
+
   // Client Dashboard Logic
   const [expandedClientId, setExpandedClientId] = useState(null);
   const [filter, setFilter] = useState('all');
@@ -154,7 +159,16 @@ const AdminSales = () => {
     return acc;
   }, {});
 
-  const toggleDetails = (id) => setExpandedClientId(expandedClientId === id ? null : id);
+  const toggleDetails = (id) => {
+    if (expandedClientId !== id) loadActivities(id);
+    setExpandedClientId(expandedClientId === id ? null : id);
+  };
+  // Totals come from the server for all clients; the new/existing filters only count the rows loaded so far.
+  const summaryValue = (status) => {
+    if (filter === 'all') return (status ? funnel[status.toLowerCase()] : funnel.total_leads) ?? 0;
+    const n = status ? statusCounts[status] || 0 : filteredClients.length;
+    return clients.hasMore ? `${n}+` : n;
+  };
   const openClientModal = (clientName) => setModalClientName(clientName);
   const closeClientModal = () => setModalClientName(null);
   const modalClientInfo = modalClientName ? clientInfoData[modalClientName] : null;
@@ -169,11 +183,11 @@ const AdminSales = () => {
       </div>
 
       <div className="summary-container">
-        <SummaryCard title="Total Leads" value={filteredClients.length} color="#3b82f6" />
-        <SummaryCard title="Prospect" value={statusCounts['Prospect'] || 0} color="#f59e0b" />
-        <SummaryCard title="Negotiation" value={statusCounts['Negotiation'] || 0} color="#2563eb" />
-        <SummaryCard title="Closed" value={statusCounts['Closed'] || 0} color="#10b981" />
-        <SummaryCard title="Lost" value={statusCounts['Lost'] || 0} color="#ef4444" />
+        <SummaryCard title="Total Leads" value={summaryValue()} color="#3b82f6" />
+        <SummaryCard title="Prospect" value={summaryValue('Prospect')} color="#f59e0b" />
+        <SummaryCard title="Negotiation" value={summaryValue('Negotiation')} color="#2563eb" />
+        <SummaryCard title="Closed" value={summaryValue('Closed')} color="#10b981" />
+        <SummaryCard title="Lost" value={summaryValue('Lost')} color="#ef4444" />
       </div>
 
       {filteredClients.length === 0 ? (
@@ -216,6 +230,11 @@ const AdminSales = () => {
           </tbody>
         </table>
       )}
+      {clients.hasMore && (
+        <button type="button" className="filter-btn load-more-btn" onClick={clients.loadMore} disabled={clients.loadingMore}>
+          {clients.loadingMore ? 'Loading...' : 'Load more clients'}
+        </button>
+      )}
       {modalClientInfo && (
         <>
           <div className="modal-backdrop" onClick={closeClientModal} aria-hidden="true" />
@@ -241,7 +260,6 @@ const AdminSales = () => {
           userId={selectedUserId}
           onBack={() => setSelectedUserId(null)}
           users={users}
-          salesLeads={salesLeads}
         />
       );
     }
@@ -276,7 +294,7 @@ const AdminSales = () => {
     );
   };
 
-  if (loading) {
+  if (loading || clients.loading) {
     return (
       <div className="dept-container">
         <h2>Sales Department</h2>
@@ -321,6 +339,7 @@ const AdminSales = () => {
         .filter-group { display: flex; gap: 0.6rem; flex-wrap: wrap; margin-bottom: 1.5rem; }
         .filter-btn { background: #e2e8f0; border: none; padding: 0.5rem 1rem; border-radius: 20px; cursor: pointer; font-weight: 600; color: #475569; transition: background 0.3s; }
         .filter-btn.active { background: #3b82f6; color: white; }
+        .load-more-btn { display: block; margin: 1rem auto 0; }
         .summary-container { display: flex; gap: 1rem; margin-bottom: 1.5rem; flex-wrap: wrap; }
         .summary-card { background: white; border-radius: 8px; padding: 1rem 1.5rem; box-shadow: 0 1px 4px rgba(0,0,0,0.1); flex: 1 1 140px; min-width: 140px; color: #334155; transition: box-shadow 0.2s; }
         .summary-card:hover { box-shadow: 0 4px 12px rgba(59,130,246,0.3); }
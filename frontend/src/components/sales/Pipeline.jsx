@@ -1,5 +1,12 @@
 import React, { useState } from 'react';
 
+const LoadMore = ({ pages, label }) =>
+  pages?.hasMore ? (
+    <button type="button" className="toggle-done-btn load-more-btn" onClick={pages.loadMore} disabled={pages.loadingMore}>
+      {pages.loadingMore ? 'Loading...' : label}
+    </button>
+  ) : null;
+
 const Pipeline = ({
   clients,
   sortedFollowUps,
@@ -11,6 +18,8 @@ const Pipeline = ({
   handleNewFollowUpChange,
   addFollowUp,
   handleStatusChange,
+  clientPages,
+  followUpPages,
 }) => {
   const [clientFilter, setClientFilter] = useState('');
 
@@ -127,6 +136,7 @@ const Pipeline = ({
           </table>
         )}
       </div>
+      <LoadMore pages={clientPages} label="Load more clients" />
 
       {/* Follow-Ups Section */}
       <div className="follow-ups-section">
@@ -149,6 +159,7 @@ const Pipeline = ({
             </li>
           ))}
         </ul>
+        <LoadMore pages={followUpPages} label="Load more follow-ups" />
       </div>
 
       {/* Modal for new follow-up */}
@@ -210,6 +221,7 @@ const Pipeline = ({
         .follow-up-list-detailed li.done { opacity: 0.6; text-decoration: line-through; }
         .toggle-done-btn { background: none; border: 1px solid #cbd5e1; padding: 0.5rem 1rem; border-radius: 20px; cursor: pointer; font-size: 0.9rem; transition: background 0.3s; }
         .toggle-done-btn:hover { background: #f1f5f9; }
+        .load-more-btn { display: block; margin: 1rem auto 0; }
         
         /* Modal for new follow-up */
         .modal-overlay { position: fixed; top: 0; left: 0; width: 100%; height: 100%; background: rgba(0,0,0,0.5); display: flex; justify-content: center; align-items: center; z-index: 1000; }
@@ -60,6 +60,16 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const token = localStorage.getItem('crmToken');
+    const refresh = localStorage.getItem('crmRefreshToken');
+    if (token || refresh) {
+      // Revoke server-side; the local session ends regardless of the outcome.
+      fetch(`${API_BASE}/token/logout`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+        body: JSON.stringify({ refresh }),
+      }).catch(() => {});
+    }
     setUser(null);
     localStorage.removeItem('crmUser');
     localStorage.removeItem('crmToken');
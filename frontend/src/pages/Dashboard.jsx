@@ -2,9 +2,12 @@ import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
 import { api } from '../api/client';
 
+const TASK_LIST_SIZE = 8;
+
 const Dashboard = () => {
   const { user } = useAuth();
   const [tasks, setTasks] = useState([]);
+  const [taskSummary, setTaskSummary] = useState(null);
   const [meetings, setMeetings] = useState([]);
   const [activities, setActivities] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -16,16 +19,21 @@ const Dashboard = () => {
 
   const fetchData = async () => {
     try {
-      const [tasksRes, meetingsRes, activitiesRes] = await Promise.allSettled([
-        api.get('/tasks/tasks'),
+      // Counts come from the summary endpoint; only the next few open tasks by deadline are listed.
+      const [summaryRes, pendingRes, inProgressRes, meetingsRes, activitiesRes] = await Promise.allSettled([
+        api.get('/tasks/tasks/summary'),
+        api.getPage(`/tasks/tasks?status=pending&sort=deadline&limit=${TASK_LIST_SIZE}`),
+        api.getPage(`/tasks/tasks?status=in_progress&sort=deadline&limit=${TASK_LIST_SIZE}`),
         api.get('/meetings/meetings'),
         api.get('/tasks/activities'),
       ]);
-      setTasks(Array.isArray(tasksRes.value) ? tasksRes.value : tasksRes.value?.results || []);
+      setTaskSummary(summaryRes.status === 'fulfilled' ? summaryRes.value : null);
+      setTasks([pendingRes, inProgressRes].flatMap((r) => (r.status === 'fulfilled' ? r.value.results : [])));
       setMeetings(Array.isArray(meetingsRes.value) ? meetingsRes.value : meetingsRes.value?.results || []);
       setActivities(Array.isArray(activitiesRes.value) ? activitiesRes.value : activitiesRes.value?.results || []);
     } catch {
       setTasks([]);
+      setTaskSummary(null);
       setMeetings([]);
       setActivities([]);
     } finally {
@@ -55,9 +63,11 @@ const Dashboard = () => {
   };
 
   const today = new Date().toISOString().slice(0, 10);
-  const pendingTasks = tasks.filter((t) => t.status !== 'completed');
-  const overdueTasks = tasks.filter((t) => t.is_overdue);
-  const completedTasks = tasks.filter((t) => t.status === 'completed');
+  const byDeadline = (a, b) => (a.deadline || '9999-12-31').localeCompare(b.deadline || '9999-12-31');
+  const pendingTasks = [...tasks].sort(byDeadline).slice(0, TASK_LIST_SIZE);
+  const openCount = taskSummary?.open ?? 0;
+  const overdueCount = taskSummary?.overdue ?? 0;
+  const completedCount = taskSummary?.by_status?.completed ?? 0;
   const upcomingMeetings = meetings.filter((m) => new Date(m.scheduled_at) > new Date()).sort((a, b) => new Date(a.scheduled_at) - new Date(b.scheduled_at)).slice(0, 5);
 
   const formatDate = (d) => (d ? new Date(d).toLocaleDateString() : '-');
@@ -78,15 +88,15 @@ const Dashboard = () => {
         <div className="dashboard-grid">
           <div className="stats-row">
             <div className="stat-card">
-              <span className="stat-value">{pendingTasks.length}</span>
+              <span className="stat-value">{openCount}</span>
               <span className="stat-label">Pending Tasks</span>
             </div>
             <div className="stat-card overdue">
-              <span className="stat-value">{overdueTasks.length}</span>
+              <span className="stat-value">{overdueCount}</span>
               <span className="stat-label">Overdue</span>
             </div>
             <div className="stat-card done">
-              <span className="stat-value">{completedTasks.length}</span>
+              <span className="stat-value">{completedCount}</span>
               <span className="stat-label">Completed</span>
             </div>
             <div className="stat-card">
@@ -102,7 +112,7 @@ const Dashboard = () => {
                 <p className="empty">No pending tasks</p>
               ) : (
                 <ul className="task-list">
-                  {pendingTasks.slice(0, 8).map((t) => (
+                  {pendingTasks.map((t) => (
                     <li key={t.id} className={t.is_overdue ? 'overdue' : ''}>
                       <span>{t.title}</span>
                       <span>{t.assigned_to_detail?.name || t.assigned_to_detail?.username}</span>
@@ -1,11 +1,12 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
 import { api } from '../api/client';
+import { usePagedList } from '../api/usePagedList';
 
 const HR = () => {
   const { user } = useAuth();
   const [leaveRequests, setLeaveRequests] = useState([]);
-  const [tasks, setTasks] = useState([]);
+  const tasks = usePagedList('/tasks/tasks');
   const [activities, setActivities] = useState([]);
   const [loading, setLoading] = useState(true);
   const [activityText, setActivityText] = useState('');
@@ -29,23 +30,18 @@ const HR = () => {
     }
   };
 
-  const fetchTasksAndActivity = async () => {
+  const fetchActivity = async () => {
     try {
-      const [tasksRes, activitiesRes] = await Promise.allSettled([
-        api.get('/tasks/tasks'),
-        api.get('/tasks/activities'),
-      ]);
-      setTasks(Array.isArray(tasksRes.value) ? tasksRes.value : tasksRes.value?.results || []);
-      setActivities(Array.isArray(activitiesRes.value) ? activitiesRes.value : activitiesRes.value?.results || []);
+      const data = await api.get('/tasks/activities');
+      setActivities(Array.isArray(data) ? data : data?.results || []);
     } catch {
-      setTasks([]);
       setActivities([]);
     }
   };
 
   const fetchAll = async () => {
     setLoading(true);
-    await Promise.all([fetchLeaves(), fetchTasksAndActivity()]);
+    await Promise.all([fetchLeaves(), fetchActivity()]);
     setLoading(false);
   };
 
@@ -64,7 +60,7 @@ const HR = () => {
         date: new Date().toISOString().slice(0, 10),
       });
       setActivityText('');
-      fetchTasksAndActivity();
+      fetchActivity();
     } catch (err) {
       setActivityError(err.message || 'Failed to save activity');
     }
@@ -135,13 +131,13 @@ const HR = () => {
       {/* My tasks – what I need to do / will do (same for everyone; Superadmin sees all on Dashboard) */}
       <section style={styles.section}>
         <h2 style={styles.sectionTitle}>✅ My tasks</h2>
-        {loading ? (
+        {tasks.loading ? (
           <p style={styles.noRequests}>Loading...</p>
-        ) : tasks.length === 0 ? (
+        ) : tasks.items.length === 0 ? (
           <p style={styles.noRequests}>No tasks assigned yet.</p>
         ) : (
           <ul style={styles.taskList}>
-            {tasks.map((t) => (
+            {tasks.items.map((t) => (
               <li key={t.id} style={{ ...styles.taskItem, borderLeftColor: t.is_overdue ? '#f44336' : t.status === 'completed' ? '#4caf50' : '#2196f3' }}>
                 <strong>{t.title}</strong>
                 <span style={styles.taskMeta}>
@@ -155,6 +151,11 @@ const HR = () => {
             ))}
           </ul>
         )}
+        {tasks.hasMore && (
+          <button type="button" style={styles.loadMoreButton} onClick={tasks.loadMore} disabled={tasks.loadingMore}>
+            {tasks.loadingMore ? 'Loading...' : 'Load more tasks'}
+          </button>
+        )}
       </section>
 
       {/* My activity – what I did (Superadmin can see everyone's on Dashboard) */}
@@ -393,6 +394,15 @@ const styles = {
     color: '#64748b',
     marginTop: '0.25rem',
   },
+  loadMoreButton: {
+    padding: '0.4rem 0.8rem',
+    border: 'none',
+    borderRadius: '6px',
+    backgroundColor: '#2196f3',
+    color: 'white',
+    fontWeight: '600',
+    cursor: 'pointer',
+  },
   taskDesc: {
     margin: '0.5rem 0 0',
     fontSize: '0.95rem',
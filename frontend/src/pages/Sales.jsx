@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
 import { api } from '../api/client';
+import { usePagedList } from '../api/usePagedList';
 import NewToBusiness from '../components/sales/NewToBusiness';
 import ExistingClient from '../components/sales/ExistingClient';
 import Pipeline from '../components/sales/Pipeline';
@@ -26,6 +27,7 @@ const normalizeClient = (c) => {
 const normalizeFollowUp = (f) => ({
   ...f,
   clientId: f.client ?? f.clientId,
+  clientName: f.client_name ?? f.clientName,
   date: f.date,
 });
 
@@ -46,8 +48,10 @@ const Sales = () => {
   };
   const [salesForm, setSalesForm] = useState(initialSalesForm);
   const [salesActivities, setSalesActivities] = useState([]);
-  const [clients, setClients] = useState([]);
-  const [followUps, setFollowUps] = useState([]);
+  const clientPages = usePagedList('/sales/clients', normalizeClient);
+  const followUpPages = usePagedList('/sales/follow-ups', normalizeFollowUp);
+  const { items: clients, setItems: setClients } = clientPages;
+  const { items: followUps, setItems: setFollowUps } = followUpPages;
   const [salesServices, setSalesServices] = useState([
     'Bulk SMS',
     'OTP SMS',
@@ -62,35 +66,25 @@ const Sales = () => {
     const load = async () => {
       setLoading(true);
       try {
-        const [clientsRes, followUpsRes, servicesRes, activitiesRes] = await Promise.allSettled([
-          api.get('/sales/clients'),
-          api.get('/sales/follow-ups'),
+        // Recent activities are the first page only; clients and follow-ups page in on demand.
+        const [servicesRes, activitiesRes] = await Promise.allSettled([
           api.get('/sales/services'),
-          api.get('/sales/activities'),
+          api.getPage('/sales/activities'),
         ]);
-        const clientsList = clientsRes.status === 'fulfilled' && Array.isArray(clientsRes.value)
-          ? clientsRes.value.map(normalizeClient)
-          : [];
-        const followUpsList = followUpsRes.status === 'fulfilled' && Array.isArray(followUpsRes.value)
-          ? followUpsRes.value.map(normalizeFollowUp)
-          : [];
         const servicesList = servicesRes.status === 'fulfilled' && Array.isArray(servicesRes.value)
           ? servicesRes.value.map((s) => s.name || s)
           : salesServices;
-        const activitiesList = activitiesRes.status === 'fulfilled' && Array.isArray(activitiesRes.value)
-          ? activitiesRes.value.map((a) => ({
+        const activitiesList = activitiesRes.status === 'fulfilled'
+          ? activitiesRes.value.results.map((a) => ({
               id: a.id,
               date: a.date || a.created_at,
               activity: a.notes || a.activity_type || '',
             }))
           : [];
-        setClients(clientsList);
-        setFollowUps(followUpsList);
         setSalesServices(servicesList);
         setSalesActivities(activitiesList);
       } catch {
-        setClients([]);
-        setFollowUps([]);
+        setSalesActivities([]);
       } finally {
         setLoading(false);
       }
@@ -116,43 +110,32 @@ const Sales = () => {
     averageTimeToClose: 0,
   });
 
+  // Totals are counted on the server, since only the loaded pages of clients are in memory.
+  const fetchAnalytics = async () => {
+    try {
+      const data = await api.get('/sales/clients/analytics');
+      const funnel = data?.conversion_funnel || {};
+      const totalLeads = funnel.total_leads || 0;
+      setAnalytics({
+        totalRevenue: data?.total_revenue || 0,
+        conversionFunnel: {
+          totalLeads,
+          prospect: funnel.prospect || 0,
+          negotiation: funnel.negotiation || 0,
+          closed: funnel.closed || 0,
+          lost: funnel.lost || 0,
+        },
+        prospectToClosedRate: (totalLeads > 0 ? (((funnel.closed || 0) + (funnel.lost || 0)) / totalLeads) * 100 : 0).toFixed(2),
+        averageTimeToClose: Number(data?.average_time_to_close || 0).toFixed(0),
+      });
+    } catch {
+      // Keep the previous figures.
+    }
+  };
+
   useEffect(() => {
-    const closedDeals = clients.filter((c) => c.status === 'Closed');
-    const totalRevenue = closedDeals.reduce((sum, deal) => sum + (Number(deal.dealValue) || 0), 0);
-
-    const prospectCount = clients.filter(c => c.status === 'Prospect').length;
-    const negotiationCount = clients.filter(c => c.status === 'Negotiation').length;
-    const closedCount = closedDeals.length;
-    const lostCount = clients.filter(c => c.status === 'Lost').length;
-    const totalLeads = clients.length;
-
-    const prospectToClosedRate = totalLeads > 0 ? ((closedCount + lostCount) / totalLeads) * 100 : 0;
-    
-    let totalDaysToClose = 0;
-    closedDeals.forEach(deal => {
-      const entryDate = new Date(deal.entryDate || deal.closedDate);
-      const closeDate = new Date(deal.closedDate);
-      if (deal.closedDate) {
-        const diffTime = Math.abs(closeDate - entryDate);
-        const diffDays = Math.ceil(diffTime / (1000 * 60 * 60 * 24));
-        totalDaysToClose += diffDays;
-      }
-    });
-    const averageTimeToClose = closedDeals.length > 0 ? totalDaysToClose / closedDeals.length : 0;
-
-    setAnalytics({
-      totalRevenue: totalRevenue,
-      conversionFunnel: {
-        totalLeads: totalLeads,
-        prospect: prospectCount,
-        negotiation: negotiationCount,
-        closed: closedCount,
-        lost: lostCount,
-      },
-      prospectToClosedRate: prospectToClosedRate.toFixed(2),
-      averageTimeToClose: averageTimeToClose.toFixed(0),
-    });
-  }, [clients]);
+    fetchAnalytics();
+  }, []);
 
   const handleStatusChange = async (clientId, newStatus) => {
     try {
@@ -160,26 +143,9 @@ const Sales = () => {
       if (newStatus === 'Closed') payload.deal_value = 5000;
       const updated = await api.post(`/sales/clients/${clientId}/update_status`, payload);
       setClients((prev) => prev.map((c) => (c.id === clientId ? normalizeClient(updated) : c)));
+      fetchAnalytics();
     } catch {
-      fetchClients();
-    }
-  };
-
-  const fetchClients = async () => {
-    try {
-      const data = await api.get('/sales/clients');
-      setClients(Array.isArray(data) ? data.map(normalizeClient) : []);
-    } catch {
-      setClients([]);
-    }
-  };
-
-  const fetchFollowUps = async () => {
-    try {
-      const data = await api.get('/sales/follow-ups');
-      setFollowUps(Array.isArray(data) ? data.map(normalizeFollowUp) : []);
-    } catch {
-      setFollowUps([]);
+      clientPages.reload();
     }
   };
 
@@ -252,6 +218,7 @@ const Sales = () => {
             : undefined,
         });
         setClients((prev) => [...prev, normalizeClient(created)]);
+        fetchAnalytics();
         setFlashMessage({ text: 'Client created successfully.', type: 'success' });
       } catch (err) {
         setFlashMessage({ text: err.message || 'Failed to create client.', type: 'error' });
@@ -269,7 +236,7 @@ const Sales = () => {
       const updated = await api.post(`/sales/follow-ups/${id}/toggle_done`);
       setFollowUps((prev) => prev.map((fu) => (fu.id === id ? normalizeFollowUp(updated) : fu)));
     } catch {
-      fetchFollowUps();
+      followUpPages.reload();
     }
   };
 
@@ -305,7 +272,8 @@ const Sales = () => {
 
   const getClientName = (id) => {
     const client = clients.find((c) => c.id === id);
-    return client ? client.clientName : 'Unknown';
+    if (client) return client.clientName;
+    return followUps.find((f) => f.clientId === id)?.clientName || 'Unknown';
   };
 
   const sortedFollowUps = [...followUps].sort((a, b) => new Date(a.date) - new Date(b.date));
@@ -422,6 +390,8 @@ const Sales = () => {
           handleNewFollowUpChange={handleNewFollowUpChange}
           addFollowUp={addFollowUp}
           handleStatusChange={handleStatusChange}
+          clientPages={clientPages}
+          followUpPages={followUpPages}
         />
       )}
 
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
 import { api } from '../api/client';
+import { usePagedList } from '../api/usePagedList';
 
 const STATUS_OPTIONS = [
   { value: 'pending', label: 'Pending' },
@@ -17,10 +18,10 @@ const PRIORITY_OPTIONS = [
 
 const Tasks = () => {
   const { user } = useAuth();
-  const [tasks, setTasks] = useState([]);
+  const tasks = usePagedList('/tasks/tasks?include=notes');
   const [users, setUsers] = useState([]);
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState('');
+  const [actionError, setError] = useState('');
+  const error = actionError || tasks.error;
   const [showForm, setShowForm] = useState(false);
   const [editingTask, setEditingTask] = useState(null);
   const [noteModal, setNoteModal] = useState(null);
@@ -37,17 +38,9 @@ const Tasks = () => {
     status: 'pending',
   });
 
-  const fetchTasks = async () => {
-    try {
-      setError('');
-      const data = await api.get('/tasks/tasks');
-      setTasks(Array.isArray(data) ? data : data.results || []);
-    } catch (err) {
-      setTasks([]);
-      setError(err.message || 'Failed to load tasks');
-    } finally {
-      setLoading(false);
-    }
+  /** Swaps a task returned by a write into the loaded list, so later pages stay loaded. */
+  const replaceTask = (updated) => {
+    tasks.setItems((prev) => prev.map((t) => (t.id === updated.id ? updated : t)));
   };
 
   const fetchUsers = async () => {
@@ -61,7 +54,6 @@ const Tasks = () => {
   };
 
   useEffect(() => {
-    fetchTasks();
     fetchUsers();
   }, [isAdmin]);
 
@@ -85,18 +77,18 @@ const Tasks = () => {
               progress: formData.status === 'completed' ? 100 : (editingTask.progress || 0),
             }
           : { status: formData.status, progress: formData.progress ?? editingTask.progress ?? 0 };
-        await api.patch(`/tasks/tasks/${editingTask.id}`, payload);
+        replaceTask(await api.patch(`/tasks/tasks/${editingTask.id}`, payload));
       } else {
         const payload = {
           ...formData,
           assigned_to: formData.assigned_to ? parseInt(formData.assigned_to) : user?.id,
         };
-        await api.post('/tasks/tasks', payload);
+        const created = await api.post('/tasks/tasks', payload);
+        tasks.setItems((prev) => [created, ...prev]);
       }
       setShowForm(false);
       setEditingTask(null);
       setFormData({ title: '', description: '', assigned_to: '', deadline: '', priority: 'medium', status: 'pending' });
-      fetchTasks();
     } catch (err) {
       setError(err.message || 'Failed to save task');
     }
@@ -104,8 +96,8 @@ const Tasks = () => {
 
   const handleUpdateStatus = async (task, status, progress) => {
     try {
-      await api.patch(`/tasks/tasks/${task.id}`, { status, progress: progress ?? task.progress });
-      fetchTasks();
+      setError('');
+      replaceTask(await api.patch(`/tasks/tasks/${task.id}`, { status, progress: progress ?? task.progress }));
     } catch (err) {
       setError(err.message || 'Failed to update');
     }
@@ -115,9 +107,9 @@ const Tasks = () => {
     if (!noteModal || !newNote.trim()) return;
     try {
       await api.post(`/tasks/tasks/${noteModal.id}/add_note`, { content: newNote });
+      replaceTask(await api.get(`/tasks/tasks/${noteModal.id}`));
       setNoteModal(null);
       setNewNote('');
-      fetchTasks();
     } catch (err) {
       setError(err.message || 'Failed to add note');
     }
@@ -155,13 +147,13 @@ const Tasks = () => {
 
       {error && <div className="alert alert-error">{error}</div>}
 
-      {loading ? (
+      {tasks.loading ? (
         <div className="loading">Loading tasks...</div>
-      ) : tasks.length === 0 ? (
+      ) : tasks.items.length === 0 ? (
         <div className="empty-state">No tasks found. {isAdmin && 'Assign a task to get started.'}</div>
       ) : (
         <div className="tasks-grid">
-          {tasks.map((task) => (
+          {tasks.items.map((task) => (
             <div key={task.id} className={`task-card ${task.is_overdue ? 'overdue' : ''}`}>
               <div className="task-header">
                 <h3>{task.title}</h3>
@@ -210,6 +202,13 @@ const Tasks = () => {
           ))}
         </div>
       )}
+      {!tasks.loading && tasks.hasMore && (
+        <div className="load-more">
+          <button className="btn-sm" onClick={tasks.loadMore} disabled={tasks.loadingMore}>
+            {tasks.loadingMore ? 'Loading...' : 'Load more tasks'}
+          </button>
+        </div>
+      )}
 
       {showForm && (
         <div className="modal-overlay" onClick={() => setShowForm(false)}>
@@ -270,6 +269,7 @@ const Tasks = () => {
         .btn-primary:hover { background: #3d46e0; }
         .btn-sm { padding: 0.4rem 0.8rem; font-size: 0.85rem; border-radius: 6px; border: 1px solid #cbd5e1; background: #fff; cursor: pointer; margin-left: 0.5rem; }
         .btn-sm:hover { background: #f1f5f9; }
+        .load-more { text-align: center; margin-top: 1.5rem; }
         .alert { padding: 0.75rem 1rem; border-radius: 8px; margin-bottom: 1rem; }
         .alert-error { background: #fee2e2; color: #991b1b; }
         .loading, .empty-state { text-align: center; padding: 3rem; color: #64748b; }